@@ -0,0 +1,19 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import EasyAppointment.appointmentscheduler.models.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This is a data transfer object (DTO) for the booking of an appointment.
+ * It is a read-only projection holding what is needed to cancel the appointment,
+ * so the booking graph does not have to be loaded.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentBookingDTO {
+    private Long appointmentId;
+    private Long bookingId;
+    private BookingStatus status;
+    private String userEmail;
+}
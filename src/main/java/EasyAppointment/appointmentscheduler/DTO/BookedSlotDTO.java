@@ -0,0 +1,17 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a data transfer object (DTO) for a booked slot of a service provider.
+ * It is a read-only projection holding only what is needed to remove the slot from the computed availability.
+ */
+@Getter
+@AllArgsConstructor
+public class BookedSlotDTO {
+    private Long serviceProviderId;
+    private LocalDateTime startTime;
+}
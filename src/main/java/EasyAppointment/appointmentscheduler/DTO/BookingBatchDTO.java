@@ -0,0 +1,27 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * This is a data transfer object (DTO) for a batch of bookings.
+ * It is used to send data over the network or between processes.
+ * It includes the bookings to be created in a single request.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchDTO implements DTOInterface {
+    /**
+     * The bookings to be created.
+     * It must not be empty.
+     */
+    @NotEmpty(message = "Bookings are required")
+    private List<BookingDTO> bookings;
+}
@@ -2,9 +2,11 @@ package EasyAppointment.appointmentscheduler.DTO;
 
 import EasyAppointment.appointmentscheduler.models.Appointment;
 import EasyAppointment.appointmentscheduler.models.Booking;
+import EasyAppointment.appointmentscheduler.models.BookingStatus;
 import lombok.*;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -26,6 +28,18 @@ public class BookingDTO implements DTOInterface{
     private Long userId;
     private Long serviceProviderId;
 
+    /**
+     * This constructor is used to create a BookingDTO without its appointments, from a query projection.
+     * @param bookingId The ID of the booking.
+     * @param bookingTime The time of the booking.
+     * @param status The status of the booking.
+     * @param userId The ID of the user who made the booking.
+     * @param serviceProviderId The ID of the booked service provider.
+     */
+    public BookingDTO(Long bookingId, LocalDateTime bookingTime, BookingStatus status, Long userId, Long serviceProviderId) {
+        this(bookingId, bookingTime, status.getLabel(), new HashSet<>(), userId, serviceProviderId);
+    }
+
     /**
      * This constructor is used to create a BookingDTO from a Booking object.
      * It copies all the necessary information from the Booking object to the BookingDTO.
@@ -34,7 +48,7 @@ public class BookingDTO implements DTOInterface{
     public BookingDTO(Booking booking) {
         this.bookingId = booking.getBookingId();
         this.bookingTime = booking.getBookingTime();
-        this.status = booking.getStatus();
+        this.status = booking.getStatus().getLabel();
         this.appointmentsIds = booking.getAppointments().stream().map(Appointment::getId).collect(Collectors.toSet());
         this.userId = booking.getUser().getId();
         assert booking.getServiceProvider() != null;
@@ -2,7 +2,10 @@ package EasyAppointment.appointmentscheduler.DTO;
 
 import EasyAppointment.appointmentscheduler.models.Branch;
 import EasyAppointment.appointmentscheduler.models.ServiceProvider;
+import EasyAppointment.appointmentscheduler.util.ImageSize;
+import EasyAppointment.appointmentscheduler.util.ImageUrls;
 import EasyAppointment.appointmentscheduler.util.ValidationUtils;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -62,12 +65,24 @@ public class BranchDTO implements DTOInterface{
     private Long businessId;
 
     /**
-     * The image of the branch.
-     * It must not be null.
+     * The image of the branch, as uploaded.
+     * It must not be null. It is only read from requests, responses carry the image URL instead.
      */
     @NotNull(message = "Branch image is required")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
     private byte[] branchImage;
 
+    /**
+     * The URL of the image of the branch.
+     */
+    private String branchImageUrl;
+
+    /**
+     * The URL of the small thumbnail of the image of the branch, for lists.
+     */
+    private String branchThumbnailUrl;
+
     /**
      * The IDs of the service providers that work at the branch.
      */
@@ -90,8 +105,7 @@ public class BranchDTO implements DTOInterface{
         }
         this.closingHours = branch.getClosingHours();
         this.openingHours = branch.getOpeningHours();
-        if (branch.getBranchImage() != null) {
-            this.branchImage = branch.getBranchImage();
-        }
+        this.branchImageUrl = ImageUrls.of(branch.getBranchImageHash());
+        this.branchThumbnailUrl = ImageUrls.of(branch.getBranchImageHash(), ImageSize.SMALL);
     }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package EasyAppointment.appointmentscheduler.DTO;
 
 import EasyAppointment.appointmentscheduler.models.Business;
 import EasyAppointment.appointmentscheduler.models.Category;
+import EasyAppointment.appointmentscheduler.util.ImageSize;
+import EasyAppointment.appointmentscheduler.util.ImageUrls;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -9,7 +12,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.util.Arrays;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -42,12 +44,23 @@ public class BusinessDTO implements DTOInterface {
     private Set<String> businessCategories;
 
     /**
-     * The logo image of the business.
-     * It must not be null.
+     * The logo image of the business, as uploaded.
+     * It must not be null. It is only read from requests, responses carry the logo image URL instead.
      */
     @NotNull(message = "Logo image is required")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private byte[] logoImage;
 
+    /**
+     * The URL of the logo image of the business.
+     */
+    private String logoImageUrl;
+
+    /**
+     * The URL of the small thumbnail of the logo image of the business, for lists.
+     */
+    private String logoThumbnailUrl;
+
     /**
      * This constructor is used to create a BusinessDTO from a Business object.
      * It copies all the necessary information from the Business object to the BusinessDTO.
@@ -57,7 +70,8 @@ public class BusinessDTO implements DTOInterface {
         this.id = business.getId();
         this.name = business.getName();
         this.businessCategories = business.getBusinessCategories().stream().map(Category::getName).collect(Collectors.toSet());
-        this.logoImage = business.getLogoImage();
+        this.logoImageUrl = ImageUrls.of(business.getLogoImageHash());
+        this.logoThumbnailUrl = ImageUrls.of(business.getLogoImageHash(), ImageSize.SMALL);
     }
 
     /**
@@ -72,6 +86,19 @@ public class BusinessDTO implements DTOInterface {
         this.businessCategories = businessCategories.stream().map(Category::getName).collect(Collectors.toSet());
     }
 
+    /**
+     * This constructor is used to create a BusinessDTO with the provided parameters and the hash of its logo image.
+     * @param id The ID of the business.
+     * @param name The name of the business.
+     * @param businessCategories The categories of the business.
+     * @param logoImageHash The hash of the logo image of the business.
+     */
+    public BusinessDTO(Long id, String name, Set<Category> businessCategories, String logoImageHash) {
+        this(id, name, businessCategories);
+        this.logoImageUrl = ImageUrls.of(logoImageHash);
+        this.logoThumbnailUrl = ImageUrls.of(logoImageHash, ImageSize.SMALL);
+    }
+
     /**
      * This method is used to get a string representation of the BusinessDTO.
      * @return A string representation of the BusinessDTO.
@@ -82,7 +109,7 @@ public class BusinessDTO implements DTOInterface {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", businessCategories=" + businessCategories +
-                ", logoImage=" + Arrays.toString(logoImage) +
+                ", logoImageUrl='" + logoImageUrl + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * This is a data transfer object (DTO) for a batch of cancellations.
+ * It is used to send data over the network or between processes.
+ * It includes the booked appointments to be cancelled in a single request.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CancellationBatchDTO implements DTOInterface {
+    /**
+     * The IDs of the appointments to be cancelled.
+     * It must not be empty.
+     */
+    @NotEmpty(message = "Appointments are required")
+    private List<Long> appointmentsIds;
+}
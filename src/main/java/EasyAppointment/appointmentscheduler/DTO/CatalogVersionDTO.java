@@ -0,0 +1,27 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This is a data transfer object (DTO) for the version of a set of rows.
+ * It is a read-only projection of an aggregate query, computed without loading the rows:
+ * the number of rows and the highest ID change whenever a row is added or removed, since IDs come from sequences,
+ * and the sum of the row versions changes whenever a row is updated.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogVersionDTO {
+    private Long count;
+    private Long maxId;
+    private Long versionSum;
+
+    /**
+     * This constructor is used for rows without a version.
+     * @param count The number of rows.
+     * @param maxId The highest ID, or null if there are no rows.
+     */
+    public CatalogVersionDTO(Long count, Long maxId) {
+        this(count, maxId, null);
+    }
+}
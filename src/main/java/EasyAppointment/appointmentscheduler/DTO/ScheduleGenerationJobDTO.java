@@ -0,0 +1,77 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import EasyAppointment.appointmentscheduler.models.JobStatus;
+import EasyAppointment.appointmentscheduler.models.ScheduleGenerationJob;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a data transfer object (DTO) for ScheduleGenerationJob.
+ * It is used to send data over the network or between processes.
+ * It includes the progress of a service provider's schedule generation.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleGenerationJobDTO implements DTOInterface {
+    /**
+     * The ID of the job.
+     */
+    private Long jobId;
+
+    /**
+     * The ID of the service provider whose schedule is generated.
+     */
+    private Long serviceProviderId;
+
+    /**
+     * The status of the job.
+     */
+    private JobStatus status;
+
+    /**
+     * The number of weekly chunks to generate.
+     */
+    private int totalChunks;
+
+    /**
+     * The number of weekly chunks already committed.
+     */
+    private int completedChunks;
+
+    /**
+     * The number of appointments generated so far.
+     */
+    private long generatedSlots;
+
+    /**
+     * The error message if the job failed.
+     */
+    private String errorMessage;
+
+    /**
+     * The time the job was last updated.
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * This constructor is used to create a ScheduleGenerationJobDTO from a ScheduleGenerationJob object.
+     * It copies all the necessary information from the ScheduleGenerationJob object to the ScheduleGenerationJobDTO.
+     * @param job The ScheduleGenerationJob object to be converted into a ScheduleGenerationJobDTO.
+     */
+    public ScheduleGenerationJobDTO(ScheduleGenerationJob job) {
+        this.jobId = job.getId();
+        this.serviceProviderId = job.getServiceProviderId();
+        this.status = job.getStatus();
+        this.totalChunks = job.getTotalChunks();
+        this.completedChunks = job.getCompletedChunks();
+        this.generatedSlots = job.getGeneratedSlots();
+        this.errorMessage = job.getErrorMessage();
+        this.updatedAt = job.getUpdatedAt();
+    }
+}
@@ -0,0 +1,23 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalTime;
+
+/**
+ * This is a data transfer object (DTO) for the schedule rules of a service provider.
+ * It is a read-only projection holding only the columns needed to compute the slots,
+ * so the rules are read in one statement without loading the service provider's associations or image.
+ */
+@Getter
+@AllArgsConstructor
+public class ScheduleRulesDTO {
+    private Long serviceProviderId;
+    private boolean[] workingDays;
+    private int[] breakMinutes;
+    private String breakHour;
+    private int sessionDuration;
+    private LocalTime openingHours;
+    private LocalTime closingHours;
+}
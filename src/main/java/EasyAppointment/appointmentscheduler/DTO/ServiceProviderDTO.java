@@ -1,20 +1,24 @@
 package EasyAppointment.appointmentscheduler.DTO;
 
-import EasyAppointment.appointmentscheduler.models.Appointment;
 import EasyAppointment.appointmentscheduler.models.ServiceProvider;
+import EasyAppointment.appointmentscheduler.util.BreakTimes;
+import EasyAppointment.appointmentscheduler.util.ImageSize;
+import EasyAppointment.appointmentscheduler.util.ImageUrls;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
 
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.time.LocalDateTime;
 
 /**
  * This is a data transfer object (DTO) for ServiceProvider.
  * It is used to send data over the network or between processes.
- * It includes all the necessary information about a service provider.
+ * It includes all the necessary information about a service provider: its schedule rules,
+ * its next available slot and the number of its upcoming booked appointments.
+ * The appointments themselves are only exposed through the paged appointment endpoints.
  */
 @Getter
 @Setter
@@ -57,9 +61,15 @@ public class ServiceProviderDTO implements DTOInterface{
     private int sessionDuration;
 
     /**
-     * The IDs of the appointments of the service provider.
+     * The start time of the next available slot of the service provider.
+     * It is null if the service provider has no available slot in the near future.
      */
-    private Set<Long> appointmentsIds;
+    private LocalDateTime nextAvailableSlot;
+
+    /**
+     * The number of upcoming booked appointments of the service provider.
+     */
+    private Long upcomingBookedCount;
 
     /**
      * The ID of the branch that the service provider belongs to.
@@ -67,12 +77,24 @@ public class ServiceProviderDTO implements DTOInterface{
     private Long branchId;
 
     /**
-     * The image of the service provider.
-     * It must not be null.
+     * The image of the service provider, as uploaded.
+     * It must not be null. It is only read from requests, responses carry the image URL instead.
      */
     @NotNull(message = "Service Provider image is required")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @ToString.Exclude
     private byte[] serviceProviderImage;
 
+    /**
+     * The URL of the image of the service provider.
+     */
+    private String serviceProviderImageUrl;
+
+    /**
+     * The URL of the small thumbnail of the image of the service provider, for lists.
+     */
+    private String serviceProviderThumbnailUrl;
+
     /**
      * This constructor is used to create a ServiceProviderDTO from a ServiceProvider object.
      * It copies all the necessary information from the ServiceProvider object to the ServiceProviderDTO.
@@ -82,30 +104,21 @@ public class ServiceProviderDTO implements DTOInterface{
         this.id = serviceProvider.getId();
         this.name = serviceProvider.getName();
         this.workingDays = serviceProvider.getWorkingDays();
-        if (serviceProvider.getBreakHour() != null){
-            this.breakHour = serviceProvider.getBreakHour().split("-");
-        }
+        this.breakHour = BreakTimes.format(serviceProvider.getBreakMinutes());
         this.sessionDuration = serviceProvider.getSessionDuration();
         this.branchId = serviceProvider.getBranch().getId();
-        if (serviceProvider.getAppointments() != null) {
-            this.appointmentsIds = serviceProvider.getAppointments().stream().map(Appointment::getId).collect(Collectors.toSet());
-        }
-        if (serviceProvider.getServiceProviderImage() != null) {
-            this.serviceProviderImage = serviceProvider.getServiceProviderImage();
-        }
+        this.serviceProviderImageUrl = ImageUrls.of(serviceProvider.getServiceProviderImageHash());
+        this.serviceProviderThumbnailUrl = ImageUrls.of(serviceProvider.getServiceProviderImageHash(), ImageSize.SMALL);
     }
 
     /**
-     * This method is used to get the break hours of the service provider.
-     * @return The break hours of the service provider.
+     * This constructor is used to create a ServiceProviderDTO from a ServiceProvider object and its upcoming appointments.
+     * @param serviceProvider The ServiceProvider object to be converted into a ServiceProviderDTO.
+     * @param stats The next available slot and the number of upcoming booked appointments of the service provider.
      */
-    public String[] getBreakHour() {
-        if (breakHour == null) {
-            return null;
-        }
-        int length = breakHour.length;
-        System.out.println("length: " + length);
-
-        return breakHour;
+    public ServiceProviderDTO(ServiceProvider serviceProvider, ServiceProviderStatsDTO stats) {
+        this(serviceProvider);
+        this.nextAvailableSlot = stats.getNextAvailableSlot();
+        this.upcomingBookedCount = stats.getUpcomingBookedCount();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * This is a data transfer object (DTO) for the upcoming appointments of a service provider.
+ * It is a read-only projection computed for several service providers in one grouped query,
+ * so listing service providers does not load their appointments.
+ */
+@Getter
+@AllArgsConstructor
+public class ServiceProviderStatsDTO {
+    private Long serviceProviderId;
+    private LocalDateTime nextAvailableSlot;
+    private Long upcomingBookedCount;
+}
@@ -0,0 +1,35 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * This is a data transfer object (DTO) for a slot hold.
+ * It is used to send data over the network or between processes.
+ * It includes the appointments that are held for the user during checkout and when the hold expires.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotHoldDTO implements DTOInterface {
+    /**
+     * The ID of the hold, used to confirm or release it.
+     */
+    private String holdId;
+
+    /**
+     * The IDs of the held appointments.
+     */
+    private Set<Long> appointmentsIds;
+
+    /**
+     * The time at which the hold expires if it is not confirmed.
+     */
+    private LocalDateTime expiresAt;
+}
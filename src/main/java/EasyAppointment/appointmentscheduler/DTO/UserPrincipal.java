@@ -0,0 +1,54 @@
+package EasyAppointment.appointmentscheduler.DTO;
+
+import EasyAppointment.appointmentscheduler.models.Role;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * This is a read-only snapshot of a user, used as the authenticated principal.
+ * Unlike the User entity, it holds no associations and is safe to cache and share between requests.
+ * Services that need the User entity for an association take a reference by its ID.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+    private Long id;
+    private String email;
+    private String password;
+    private Role role;
+    private Long businessId;
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -1,6 +1,7 @@
 package EasyAppointment.appointmentscheduler.auth;
 
 import EasyAppointment.appointmentscheduler.config.JwtService;
+import EasyAppointment.appointmentscheduler.exception.ServiceBusyException;
 import EasyAppointment.appointmentscheduler.exception.UserAlreadyExistException;
 import EasyAppointment.appointmentscheduler.models.Role;
 import EasyAppointment.appointmentscheduler.models.User;
@@ -10,6 +11,7 @@ import EasyAppointment.appointmentscheduler.requestsAndResponses.authentication.
 import EasyAppointment.appointmentscheduler.requestsAndResponses.authentication.RegisterRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -26,10 +28,12 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashingService;
 
     /**
      * This method handles the registration of a new user.
      * It checks if a user with the same email already exists, creates a new user, and generates a JWT for the user.
+     * The password is hashed on the bounded password hashing executor.
      * @param request The registration request.
      * @return AuthenticationResponse containing the JWT and a success message.
      * @throws UserAlreadyExistException if a user with the same email already exists.
@@ -41,7 +45,7 @@ public class AuthenticationService {
         var user = User.builder()
                 .fullName(request.getFullName())
                 .email(request.getEmail().toLowerCase())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.run(() -> passwordEncoder.encode(request.getPassword())))
                 .role(Role.USER)
                 .build();
         userRepository.save(user);
@@ -55,19 +59,21 @@ public class AuthenticationService {
     /**
      * This method handles the authentication of a user.
      * It checks the user's credentials, retrieves the user's details, and generates a JWT for the user.
+     * The credentials are checked on the bounded password hashing executor.
      * @param request The authentication request.
      * @return AuthenticationResponse containing the JWT and a success message.
      * @throws UsernameNotFoundException if the user's credentials are invalid or the user is not found.
+     * @throws ServiceBusyException if too many credentials are being checked.
      */
     public AuthenticationResponse authenticateUser(AuthenticationRequest request) {
 
-        try{  authenticationManager.authenticate(
+        try{  passwordHashingService.run(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail().toLowerCase(),
-                        request.getPassword()));
+                        request.getPassword())));
         }
 
-        catch (Exception WrongCredentialsException){
+        catch (AuthenticationException WrongCredentialsException){
            throw new UsernameNotFoundException("Invalid credentials");
         }
 
@@ -0,0 +1,95 @@
+package EasyAppointment.appointmentscheduler.auth;
+
+import EasyAppointment.appointmentscheduler.exception.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This is the service that runs password hashing work on a dedicated bounded executor.
+ * Hashing a password is deliberately expensive, so a burst of sign-ins or sign-ups running on the request threads
+ * would take all of them and starve the rest of the API. Here at most a fixed number of hashes run at once,
+ * a bounded number wait, and further requests are rejected immediately with a ServiceBusyException.
+ * A request also gives up with a ServiceBusyException if its hash is not done within a timeout, so a stalled pool
+ * cannot hold the request threads indefinitely.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    // How long a request waits for its hash, including the time it spends in the queue
+    @Value("${security.password.hashing-timeout-ms:10000}")
+    private long timeoutMillis;
+
+    /**
+     * This constructor is used to create a PasswordHashingService.
+     * @param executor The bounded executor that runs the hashing work.
+     */
+    public PasswordHashingService(@Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * This method runs a task that hashes or checks a password on the hashing executor and waits for its result.
+     * @param task The task.
+     * @return The result of the task.
+     * The task is cancelled if it does not complete within the timeout.
+     * @throws ServiceBusyException if the executor's queue is full or the task times out.
+     */
+    public <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException e) {
+            rejected.incrementAndGet();
+            throw new ServiceBusyException("Too many authentication requests, please try again shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.incrementAndGet();
+            throw new ServiceBusyException("Authentication is taking too long, please try again shortly");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    /**
+     * This method returns the metrics of the hashing executor.
+     * @return A map of metric names to their values.
+     */
+    public Map<String, Long> getMetrics() {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("active", (long) pool.getActiveCount());
+        metrics.put("queued", (long) pool.getQueue().size());
+        metrics.put("queueCapacity", (long) executor.getQueueCapacity());
+        metrics.put("completed", pool.getCompletedTaskCount());
+        metrics.put("rejected", rejected.get());
+        metrics.put("timedOut", timedOut.get());
+        return metrics;
+    }
+}
@@ -1,18 +1,24 @@
 package EasyAppointment.appointmentscheduler.config;
 
 import EasyAppointment.appointmentscheduler.repositories.UserRepository;
+import EasyAppointment.appointmentscheduler.services.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * This is the configuration class for the application.
  * It handles the configuration of authentication and password encoding.
@@ -21,17 +27,21 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
+   private final UserPrincipalCache userPrincipalCache;
    private final UserRepository userRepository;
 
+   // The BCrypt cost factor of new hashes, existing hashes with a lower cost are upgraded on login
+   @Value("${security.password.bcrypt-strength:10}")
+   private int bcryptStrength;
+
    /**
     * This method provides a UserDetailsService bean.
-    * It is used to load user-specific data.
+    * It is used to load user-specific data, through the cache of user principals.
     * @return UserDetailsService
     */
    @Bean
    public UserDetailsService userDetailsService() {
-      return username -> userRepository.findByEmail(username)
-              .orElseThrow(() -> new UsernameNotFoundException("User with email " + username + " not found"));
+      return userPrincipalCache::get;
    }
 
    /**
@@ -44,6 +54,7 @@ public class ApplicationConfig {
       DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
       authProvider.setUserDetailsService(userDetailsService());
       authProvider.setPasswordEncoder(passwordEncoder());
+      authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
       return authProvider;
    }
 
@@ -62,11 +73,32 @@ public class ApplicationConfig {
    /**
     * This method provides a PasswordEncoder bean.
     * It is used to encode the password in the security context.
+    * New hashes are prefixed with the id of their encoder, so the encoding can be changed later without
+    * invalidating existing passwords, and legacy hashes without a prefix are checked as BCrypt.
     * @return PasswordEncoder
     */
    @Bean
    public PasswordEncoder passwordEncoder()  {
-      return new BCryptPasswordEncoder();
+      Map<String, PasswordEncoder> encoders = new HashMap<>();
+      encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+      DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", encoders);
+      encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(bcryptStrength));
+      return encoder;
+   }
+
+   /**
+    * This method provides a UserDetailsPasswordService bean.
+    * It is called after a successful login when the stored hash uses an outdated encoding or cost,
+    * and replaces it with a hash from the current encoder.
+    * @return UserDetailsPasswordService
+    */
+   @Bean
+   public UserDetailsPasswordService userDetailsPasswordService() {
+      return (user, newPassword) -> {
+         userRepository.updatePassword(user.getUsername(), newPassword);
+         userPrincipalCache.evict(user.getUsername());
+         return userPrincipalCache.get(user.getUsername());
+      };
    }
 
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package EasyAppointment.appointmentscheduler.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * This is the configuration class for background execution.
+ * It enables Spring's asynchronous method execution and scheduled tasks,
+ * and defines the bounded executors used by background work.
+ * Declaring these executors replaces the task executor Spring Boot would otherwise provide,
+ * so it also defines the default executor used by @Async methods and asynchronous requests.
+ * The executors are initialized and shut down by Spring as beans.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig implements AsyncConfigurer {
+
+    @Value("${async.default.pool-size:8}")
+    private int defaultPoolSize;
+
+    @Value("${async.default.queue-capacity:1000}")
+    private int defaultQueueCapacity;
+
+    @Value("${scheduling.generation.pool-size:2}")
+    private int generationPoolSize;
+
+    @Value("${scheduling.generation.queue-capacity:100}")
+    private int generationQueueCapacity;
+
+    @Value("${scheduling.extender.pool-size:4}")
+    private int extenderPoolSize;
+
+    @Value("${scheduling.extender.batch-size:500}")
+    private int extenderBatchSize;
+
+    // 0 uses one thread per available processor
+    @Value("${security.password.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing-queue-capacity:100}")
+    private int hashingQueueCapacity;
+
+    @Value("${images.processing.pool-size:2}")
+    private int imageProcessingPoolSize;
+
+    @Value("${images.processing.queue-capacity:100}")
+    private int imageProcessingQueueCapacity;
+
+    /**
+     * This method provides the default executor, used by @Async methods without a qualifier
+     * and by Spring MVC for asynchronous requests.
+     * It has a fixed number of threads and a bounded queue, like the task executor Spring Boot would provide.
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(defaultPoolSize);
+        executor.setMaxPoolSize(defaultPoolSize);
+        executor.setQueueCapacity(defaultQueueCapacity);
+        executor.setThreadNamePrefix("task-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * This method returns the default executor to Spring's asynchronous method execution.
+     * @return Executor
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        return applicationTaskExecutor();
+    }
+
+    /**
+     * This method provides the executor that generates service provider schedules.
+     * It has a fixed number of threads and a bounded queue, so a burst of new service providers
+     * cannot exhaust the database connections used by the request threads.
+     * When the queue is full, submissions are rejected.
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "scheduleGenerationExecutor")
+    public ThreadPoolTaskExecutor scheduleGenerationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(generationPoolSize);
+        executor.setMaxPoolSize(generationPoolSize);
+        executor.setQueueCapacity(generationQueueCapacity);
+        executor.setThreadNamePrefix("schedule-generation-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * This method provides the executor that extends the schedules of the service providers to the rolling horizon.
+     * Its queue holds one batch of service providers, and when it is full the submitting thread runs the work itself,
+     * which slows down the paging instead of dropping service providers.
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "scheduleExtensionExecutor")
+    public ThreadPoolTaskExecutor scheduleExtensionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(extenderPoolSize);
+        executor.setMaxPoolSize(extenderPoolSize);
+        executor.setQueueCapacity(extenderBatchSize);
+        executor.setThreadNamePrefix("schedule-extension-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * This method provides the executor that hashes and checks passwords.
+     * It has one thread per processor by default, since hashing is CPU bound, and a bounded queue.
+     * When the queue is full, submissions are rejected so the request fails fast instead of holding a request thread.
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(hashingQueueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+
+    /**
+     * This method provides the executor that computes the resized variants of uploaded images.
+     * It has a few threads and a bounded queue, since decoding and resizing images is CPU and memory bound.
+     * When the queue is full, submissions are rejected and the original images are served instead.
+     * @return ThreadPoolTaskExecutor
+     */
+    @Bean(name = "imageProcessingExecutor")
+    public ThreadPoolTaskExecutor imageProcessingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageProcessingPoolSize);
+        executor.setMaxPoolSize(imageProcessingPoolSize);
+        executor.setQueueCapacity(imageProcessingQueueCapacity);
+        executor.setThreadNamePrefix("image-processing-");
+        return executor;
+    }
+}
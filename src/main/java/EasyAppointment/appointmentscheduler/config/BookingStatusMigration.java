@@ -0,0 +1,79 @@
+package EasyAppointment.appointmentscheduler.config;
+
+import EasyAppointment.appointmentscheduler.models.BookingStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * This class converts the legacy TEXT booking status column to the SMALLINT codes of BookingStatus,
+ * which the schema update does not do for existing columns.
+ * It runs while the application context starts, before the entity manager factory is created
+ * and before the web server accepts requests, so no request ever sees the old column.
+ * A status label without a code aborts the migration and the start of the application instead of being lost.
+ * It does nothing on other databases or once the column is converted, so it runs on every start.
+ * It uses Spring's @Component annotation to indicate that it's a component class.
+ */
+@Component
+public class BookingStatusMigration {
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * This constructor is used to create a BookingStatusMigration with the required dependencies.
+     * @param dataSource The data source, used to detect the database.
+     * @param jdbcTemplate The JdbcTemplate that runs the migration.
+     */
+    public BookingStatusMigration(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * This method converts the status column if it is still TEXT.
+     * The check and the conversion are a single statement, so the column is either fully converted or left as it is.
+     * Any failure is rethrown, so the application does not start on a half migrated schema.
+     * @throws MetaDataAccessException if the database cannot be detected.
+     */
+    @PostConstruct
+    public void migrate() throws MetaDataAccessException {
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        jdbcTemplate.execute(migrationStatement());
+    }
+
+    /**
+     * This method builds the conversion statement from the labels and codes of BookingStatus.
+     * Rows whose status is not one of the labels make the statement raise an error listing them,
+     * so the ELSE branch of the conversion is never reached.
+     * @return The PL/pgSQL block that converts the column.
+     */
+    static String migrationStatement() {
+        String labels = Arrays.stream(BookingStatus.values())
+                .map(status -> "'" + status.getLabel() + "'")
+                .collect(Collectors.joining(", "));
+        String cases = Arrays.stream(BookingStatus.values())
+                .map(status -> "WHEN '" + status.getLabel() + "' THEN " + status.getCode())
+                .collect(Collectors.joining(" "));
+        return "DO $$ DECLARE unknown TEXT; BEGIN " +
+                "IF EXISTS (SELECT 1 FROM information_schema.columns " +
+                "WHERE table_name = 'booking' AND column_name = 'status' AND data_type = 'text') THEN " +
+                "LOCK TABLE booking IN ACCESS EXCLUSIVE MODE; " +
+                "SELECT string_agg(DISTINCT COALESCE(status, 'NULL'), ', ') INTO unknown FROM booking " +
+                "WHERE status IS NULL OR status NOT IN (" + labels + "); " +
+                "IF unknown IS NOT NULL THEN " +
+                "RAISE EXCEPTION 'booking.status holds values without a BookingStatus code: %', unknown; " +
+                "END IF; " +
+                "ALTER TABLE booking ALTER COLUMN status TYPE SMALLINT USING CASE status " + cases + " ELSE NULL END; " +
+                "END IF; END $$";
+    }
+}
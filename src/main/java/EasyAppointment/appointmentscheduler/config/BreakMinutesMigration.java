@@ -0,0 +1,69 @@
+package EasyAppointment.appointmentscheduler.config;
+
+import EasyAppointment.appointmentscheduler.util.BreakTimes;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class fills the break minutes of the service providers that were created before the column existed,
+ * by parsing their legacy break hour text once.
+ * It runs while the application context starts, after the schema update created the column
+ * and before the web server accepts requests, so the entities never convert their breaks on read.
+ * A row whose legacy text cannot be parsed is reported and left as it is.
+ * It uses Spring's @Component annotation to indicate that it's a component class.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class BreakMinutesMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * This constructor is used to create a BreakMinutesMigration with the required dependencies.
+     * @param jdbcTemplate The JdbcTemplate that reads and updates the service providers.
+     */
+    public BreakMinutesMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * This method converts the legacy break hours of the rows without break minutes.
+     * It does nothing if the column does not exist, which is the case on databases without array columns.
+     */
+    @PostConstruct
+    public void migrate() {
+        Integer columns = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE LOWER(table_name) = 'service_provider' AND LOWER(column_name) = 'break_minutes'",
+                Integer.class);
+        if (columns == null || columns == 0) {
+            return;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT service_provider_id, break_time FROM service_provider WHERE break_minutes IS NULL");
+        int migrated = 0;
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("service_provider_id")).longValue();
+            try {
+                Integer[] breakMinutes = Arrays.stream(BreakTimes.parseLegacy((String) row.get("break_time")))
+                        .boxed().toArray(Integer[]::new);
+                jdbcTemplate.update("UPDATE service_provider SET break_minutes = ? WHERE service_provider_id = ?", ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("integer", breakMinutes));
+                    ps.setLong(2, id);
+                });
+                migrated++;
+            } catch (IllegalArgumentException e) {
+                System.out.println("Could not migrate the breaks of service provider " + id + ": " + e.getMessage());
+            }
+        }
+        if (migrated > 0) {
+            System.out.println("Migrated the breaks of " + migrated + " service providers");
+        }
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,12 +21,19 @@ import java.io.IOException;
 /**
  * This is the filter for JWT authentication.
  * It handles the extraction of the JWT from the Authorization header and validates it.
+ * When stateless authentication is enabled, a token that carries the user's ID, role and current token version
+ * is trusted as is, so the request is authenticated without loading the user from the database.
  */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+
+    // When enabled, the authorities are taken from the token instead of the database
+    @Value("${security.jwt.stateless:false}")
+    private boolean stateless;
 
     /**
      * This method handles the filtering of HTTP requests and responses.
@@ -43,21 +51,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NotNull FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final VerifiedToken token;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         jwt = authHeader.substring(7);
         try {
-            userEmail = jwtService.extractUserName(jwt);
+            token = jwtService.verify(jwt); // the only parse of the token in this request
         } catch (JwtException e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (token.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && stateless && token.isStateless() && !token.isExpired()
+                && tokenVersionCache.isCurrent(token.getUserId(), token.getTokenVersion())) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    token.getSubject(), null, token.getRole().getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
+        // tokens without the claims or with a stale version fall back to the user's current details
+        if (token.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = this.userDetailsService.loadUserByUsername(token.getSubject());
+            if (token.isValidFor(userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -1,14 +1,23 @@
 package EasyAppointment.appointmentscheduler.config;
 
+import EasyAppointment.appointmentscheduler.models.User;
+import EasyAppointment.appointmentscheduler.util.BoundedCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,14 +26,81 @@ import java.util.function.Function;
 /**
  * This is the service for JWT operations.
  * It handles the creation, validation, and extraction of information from JWTs.
+ * The signing key and the parser are built once at startup, since decoding the secret and
+ * building a parser on every call dominated the cost of validating a token.
+ * Verified tokens are also cached by the digest of the token until they expire,
+ * so a client reusing the same token skips the signature verification and the parsing of the claims.
  */
 @Service
 public class JwtService {
 
+    // The claims carried by the tokens of users, so requests can be authenticated without loading the user
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     // The secret key for signing the JWTs
     @Value("${secret.key}")
     private String SECRET_KEY;
 
+    // The signing key and the parser, built once from the secret key
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    // The maximum number of cached verified tokens, 0 disables the cache
+    @Value("${security.jwt.verified-cache-max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    // The verified tokens by the SHA-256 digest of the token, each until the token expires
+    private final BoundedCache<String, VerifiedToken> verifiedTokens = new BoundedCache<>(() -> verifiedCacheMaxSize);
+
+    /**
+     * This method builds the signing key and the parser once the secret key is injected.
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    /**
+     * Verifies the signature of a JWT and reads it, parsing the token exactly once.
+     * A token verified before is served from the cache until its expiration, and an expired token is never served.
+     * @param token The JWT.
+     * @return The VerifiedToken holding the subject, the expiration date and the claims.
+     * @throws JwtException if the token is malformed, its signature is invalid or it is expired.
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedCacheMaxSize <= 0) {
+            return new VerifiedToken(extractAllClaims(token));
+        }
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = new VerifiedToken(extractAllClaims(token)); // throws if the token is expired
+        if (verified.getExpiration() != null) { // tokens without an expiration are never cached
+            verifiedTokens.put(digest, verified, verified.getExpiration().getTime());
+        }
+        return verified;
+    }
+
+    /**
+     * Computes the SHA-256 digest of a JWT, so the cache does not keep the tokens themselves.
+     * @param token The JWT.
+     * @return The Base64 encoded digest.
+     */
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     /**
      * Extracts the username from the JWT.
      * @param token The JWT.
@@ -51,12 +127,7 @@ public class JwtService {
      * @return The claims.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -71,7 +142,7 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24 * 10))
-                .signWith(getSigningKey(), io.jsonwebtoken.SignatureAlgorithm.HS256)
+                .signWith(signingKey, io.jsonwebtoken.SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -82,8 +153,7 @@ public class JwtService {
      * @return True if the JWT is valid, false otherwise.
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUserName(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return verify(token).isValidFor(userDetails);
     }
 
     /**
@@ -92,33 +162,22 @@ public class JwtService {
      * @return True if the JWT is expired, false otherwise.
      */
     public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extracts the expiration date from the JWT.
-     * @param token The JWT.
-     * @return The expiration date.
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token).isExpired();
     }
 
     /**
      * Generates a JWT for a user.
+     * Tokens of application users carry their ID, role and token version.
      * @param userDetails The user details.
      * @return The JWT.
      */
     public String generateToken(UserDetails userDetails){
-        return generateToken( new HashMap<>(), userDetails);
-    }
-
-    /**
-     * Gets the signing key for the JWTs.
-     * @return The signing key.
-     */
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user && user.getRole() != null) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+            claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
+        return generateToken(claims, userDetails);
     }
 }
\ No newline at end of file
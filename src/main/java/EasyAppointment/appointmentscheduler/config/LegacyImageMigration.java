@@ -0,0 +1,148 @@
+package EasyAppointment.appointmentscheduler.config;
+
+import EasyAppointment.appointmentscheduler.services.ImageService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Blob;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This class moves the images still stored in the legacy image columns to the blob store.
+ * The entities no longer map these columns, so they are read with plain SQL, and only if they still exist.
+ * Each row is migrated in its own transaction, which stores its image, records the hash and clears the column,
+ * and on PostgreSQL also unlinks the large object that held the image, so its storage is freed. The migration can be interrupted and resumes with the rows that are left on the next start.
+ * It uses Spring's @Component annotation to indicate that it's a component class.
+ */
+@Component
+public class LegacyImageMigration implements CommandLineRunner {
+
+    /**
+     * A legacy image column and the hash column that replaces it.
+     */
+    private record LegacyColumn(String table, String idColumn, String imageColumn, String hashColumn) {
+    }
+
+    private static final List<LegacyColumn> LEGACY_COLUMNS = List.of(
+            new LegacyColumn("business", "business_id", "logo_image", "logo_image_hash"),
+            new LegacyColumn("branch", "branch_id", "branch_image", "branch_image_hash"),
+            new LegacyColumn("service_provider", "service_provider_id", "service_provider_image", "service_provider_image_hash")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImageService imageService;
+    private final TransactionTemplate transactionTemplate;
+
+    // When disabled, the legacy images are left in place and are not served
+    @Value("${images.migrate-legacy:true}")
+    private boolean enabled;
+
+    /**
+     * This constructor is used to create a LegacyImageMigration with the required dependencies.
+     * @param jdbcTemplate The JdbcTemplate that reads and clears the legacy columns.
+     * @param imageService The service that stores the images and computes their variants.
+     * @param transactionManager The transaction manager used to migrate each row in its own transaction.
+     */
+    public LegacyImageMigration(JdbcTemplate jdbcTemplate,
+                                ImageService imageService,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imageService = imageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        int migrated = 0;
+        for (LegacyColumn column : LEGACY_COLUMNS) {
+            try {
+                Optional<String> type = columnType(column);
+                if (type.isPresent()) {
+                    migrated += migrate(column, "oid".equalsIgnoreCase(type.get()));
+                }
+            } catch (DataAccessException e) {
+                // never keeps the application from starting, the images are migrated on a later start
+                System.out.println("Legacy image migration of " + column.table() + " skipped: " + e.getMessage());
+            }
+        }
+        if (migrated > 0) {
+            System.out.println("Migrated " + migrated + " legacy images to the blob store");
+        }
+    }
+
+    /**
+     * This method returns the type of a legacy image column, if it still exists.
+     * Databases created after the images moved to the blob store never had it.
+     * @param column The legacy column.
+     * @return An optional data type, empty if the column does not exist.
+     */
+    private Optional<String> columnType(LegacyColumn column) {
+        return jdbcTemplate.queryForList(
+                "SELECT data_type FROM information_schema.columns WHERE LOWER(table_name) = ? AND LOWER(column_name) = ?",
+                String.class, column.table(), column.imageColumn()).stream().findFirst();
+    }
+
+    /**
+     * This method migrates the rows of a legacy image column one transaction at a time.
+     * A row that fails is reported and left for the next start.
+     * @param column The legacy column.
+     * @param largeObject Whether the column holds PostgreSQL large object IDs.
+     * @return The number of migrated rows.
+     */
+    private int migrate(LegacyColumn column, boolean largeObject) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT " + column.idColumn() + " FROM " + column.table() +
+                        " WHERE " + column.imageColumn() + " IS NOT NULL AND " + column.hashColumn() + " IS NULL",
+                Long.class);
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> migrateRow(column, id, largeObject));
+                migrated++;
+            } catch (RuntimeException e) {
+                System.out.println("Could not migrate image of " + column.table() + " " + id + ": " + e.getMessage());
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * This method stores the legacy image of a row in the blob store, records its hash and clears the column.
+     * The image is read as a Blob, since PostgreSQL keeps it as a large object that is only readable in a transaction.
+     * Clearing the column does not delete a large object, so it is unlinked explicitly in the same transaction.
+     * It must be called within a transaction.
+     * @param column The legacy column.
+     * @param id The ID of the row.
+     * @param largeObject Whether the column holds PostgreSQL large object IDs.
+     */
+    private void migrateRow(LegacyColumn column, Long id, boolean largeObject) {
+        Long oid = largeObject ? jdbcTemplate.queryForObject(
+                "SELECT " + column.imageColumn() + " FROM " + column.table() + " WHERE " + column.idColumn() + " = ?",
+                Long.class, id) : null;
+        byte[] image = jdbcTemplate.queryForObject(
+                "SELECT " + column.imageColumn() + " FROM " + column.table() + " WHERE " + column.idColumn() + " = ?",
+                (rs, rowNum) -> {
+                    Blob blob = rs.getBlob(1);
+                    return blob == null ? null : blob.getBytes(1, (int) blob.length());
+                }, id);
+        if (image == null) {
+            return;
+        }
+        jdbcTemplate.update(
+                "UPDATE " + column.table() + " SET " + column.hashColumn() + " = ?, " + column.imageColumn() + " = NULL" +
+                        " WHERE " + column.idColumn() + " = ?",
+                imageService.store(image), id);
+        if (oid != null) {
+            jdbcTemplate.queryForObject("SELECT lo_unlink(CAST(? AS oid))", Integer.class, oid);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package EasyAppointment.appointmentscheduler.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * This is the configuration class for Hibernate.
+ * It enables JDBC batching, so inserts and updates of many rows are sent to the database in batches,
+ * and makes the entity manager factory wait for the schema migrations.
+ * The entities inserted in bulk allocate their IDs from their sequences in pooled blocks of 50,
+ * so the inserts do not need a sequence round-trip per row.
+ */
+@Configuration
+public class PersistenceConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${persistence.jdbc.batch-size:50}")
+    private int batchSize;
+
+    /**
+     * This method adds the batching settings to the Hibernate properties.
+     * Inserts and updates are ordered by entity so consecutive statements can share a batch.
+     * If an existing database sequence was created with an increment that differs from the mapped allocation size,
+     * the allocation size is adjusted to the sequence instead of failing or generating duplicate IDs.
+     * @param hibernateProperties The Hibernate properties.
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put("hibernate.jdbc.batch_size", batchSize);
+        hibernateProperties.put("hibernate.order_inserts", true);
+        hibernateProperties.put("hibernate.order_updates", true);
+        hibernateProperties.put("hibernate.jdbc.batch_versioned_data", true);
+        hibernateProperties.put("hibernate.id.sequence.increment_size_mismatch_strategy", "FIX");
+    }
+
+    /**
+     * This method makes the entity manager factory depend on the BookingStatusMigration,
+     * so the schema is migrated before Hibernate reads it and before any request is served.
+     * @return The post processor that adds the dependency.
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor bookingStatusMigrationDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(BookingStatusMigration.class);
+    }
+}
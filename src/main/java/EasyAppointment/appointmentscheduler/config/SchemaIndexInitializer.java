@@ -0,0 +1,56 @@
+package EasyAppointment.appointmentscheduler.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * This class creates the PostgreSQL specific indexes that JPA cannot declare.
+ * It creates a partial index on the available appointments of a service provider by start time,
+ * which also includes the end time and the duration, so the open slots of a calendar week are read from the index only.
+ * It does nothing on other databases, and the statements are idempotent so it runs on every start.
+ * It uses Spring's @Component annotation to indicate that it's a component class.
+ */
+@Component
+public class SchemaIndexInitializer implements CommandLineRunner {
+
+    private static final List<String> POSTGRES_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_appointment_available_slots " +
+                    "ON appointment (service_provider_id, start_time) INCLUDE (end_time, duration) " +
+                    "WHERE is_available"
+    );
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * This constructor is used to create a SchemaIndexInitializer with the required dependencies.
+     * @param dataSource The data source, used to detect the database.
+     * @param jdbcTemplate The JdbcTemplate that runs the statements.
+     */
+    public SchemaIndexInitializer(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) throws MetaDataAccessException {
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        for (String statement : POSTGRES_INDEXES) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (DataAccessException e) {
+                System.out.println("Could not create index: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -29,7 +29,8 @@ public class SecurityConfig {
     private static final String[] WHITE_LIST_URL = { //allowed for all
             "/api/auth/**",
             "/api/user/sign-up",
-            "/api/home",};
+            "/api/home",
+            "/api/images/**",};
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final AuthenticationProvider authenticationProvider;
 
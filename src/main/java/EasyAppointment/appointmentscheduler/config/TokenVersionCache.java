@@ -0,0 +1,59 @@
+package EasyAppointment.appointmentscheduler.config;
+
+import EasyAppointment.appointmentscheduler.repositories.UserRepository;
+import EasyAppointment.appointmentscheduler.util.BoundedCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class caches the token version of users for a short time.
+ * A stateless token is only trusted while the version it carries is the current version of its user,
+ * so bumping the version of a user (for example on a role change) invalidates the claims of all its tokens.
+ * The cache keeps this check from costing a query per request, at the price of a delay of at most the TTL,
+ * which is skipped on this instance by evicting the user when the version changes.
+ * It uses Spring's @Component annotation to indicate that it's a component class.
+ * It uses Lombok's @RequiredArgsConstructor to automatically generate a constructor with required fields.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionCache {
+    private final UserRepository userRepository;
+
+    // How long a version is trusted before it is read again, in seconds
+    @Value("${security.jwt.version-cache-ttl-seconds:30}")
+    private long ttlSeconds;
+
+    // The maximum number of cached users, the least recently used are evicted beyond it
+    @Value("${security.jwt.version-cache-max-size:10000}")
+    private int maxSize;
+
+    private final BoundedCache<Long, Integer> versions = new BoundedCache<>(() -> maxSize);
+
+    /**
+     * This method checks if a token version is the current version of a user.
+     * @param userId The ID of the user.
+     * @param tokenVersion The version carried by the token.
+     * @return True if the version is current, false if it is stale or the user does not exist.
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer version = versions.get(userId);
+        if (version == null) {
+            version = userRepository.findTokenVersionById(userId).orElse(null);
+            if (version == null) {
+                return false;
+            }
+            versions.put(userId, version, System.currentTimeMillis() + ttlSeconds * 1000);
+        }
+        return version == tokenVersion;
+    }
+
+    /**
+     * This method removes the cached version of a user.
+     * It must be called when the token version of the user changes.
+     * @param userId The ID of the user.
+     */
+    public void evict(Long userId) {
+        versions.remove(userId);
+    }
+}
@@ -0,0 +1,124 @@
+package EasyAppointment.appointmentscheduler.config;
+
+import EasyAppointment.appointmentscheduler.models.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+
+/**
+ * This class represents a JWT whose signature was verified.
+ * It holds everything read from the token by a single parse, so callers never parse the same token again.
+ */
+public class VerifiedToken {
+
+    private final String subject;
+    private final Date expiration;
+    private final Role role;
+    private final Claims claims;
+
+    /**
+     * This constructor is used to create a VerifiedToken from the verified claims of a JWT.
+     * @param claims The claims of the JWT.
+     * @throws JwtException if the token carries a role that does not exist, such as one renamed or removed since.
+     */
+    public VerifiedToken(Claims claims) {
+        this.subject = claims.getSubject();
+        this.expiration = claims.getExpiration();
+        this.role = parseRole(claims.get(JwtService.ROLE_CLAIM, String.class));
+        this.claims = claims;
+    }
+
+    /**
+     * This method returns the subject of the token, which is the user's email.
+     * @return The subject.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * This method returns the expiration date of the token.
+     * @return The expiration date.
+     */
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * This method returns all the claims of the token.
+     * @return The claims.
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * This method returns the ID of the user carried by the token.
+     * @return The user ID, or null if the token does not carry it.
+     */
+    public Long getUserId() {
+        return claims.get(JwtService.USER_ID_CLAIM, Long.class);
+    }
+
+    /**
+     * This method returns the role of the user carried by the token.
+     * @return The role, or null if the token does not carry it.
+     */
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * This method returns the token version of the user carried by the token.
+     * @return The token version, or null if the token does not carry it.
+     */
+    public Integer getTokenVersion() {
+        return claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+    }
+
+    /**
+     * This method checks if the token carries the claims needed to authenticate without loading the user.
+     * @return True if the token carries the user ID, the role and the token version.
+     */
+    public boolean isStateless() {
+        return claims.containsKey(JwtService.USER_ID_CLAIM)
+                && claims.containsKey(JwtService.ROLE_CLAIM)
+                && claims.containsKey(JwtService.TOKEN_VERSION_CLAIM);
+    }
+
+    /**
+     * This method checks if the token is expired.
+     * @return True if the token is expired, false otherwise.
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    /**
+     * This method checks if the token belongs to a user and is not expired.
+     * @param userDetails The user details.
+     * @return True if the token is valid for the user, false otherwise.
+     */
+    public boolean isValidFor(UserDetails userDetails) {
+        return subject != null && subject.equals(userDetails.getUsername()) && !isExpired();
+    }
+
+    /**
+     * This method parses the role claim of a token.
+     * @param role The role claim.
+     * @return The role, or null if the token does not carry it.
+     * @throws JwtException if the role does not exist, so the token is rejected like any other invalid token.
+     */
+    private static Role parseRole(String role) {
+        if (role == null) {
+            return null;
+        }
+        try {
+            return Role.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            throw new JwtException("Unknown role in token: " + role);
+        }
+    }
+}
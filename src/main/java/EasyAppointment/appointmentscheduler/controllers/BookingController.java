@@ -1,11 +1,18 @@
 package EasyAppointment.appointmentscheduler.controllers;
 
 import EasyAppointment.appointmentscheduler.DTO.AppointmentDTO;
+import EasyAppointment.appointmentscheduler.DTO.BookingBatchDTO;
 import EasyAppointment.appointmentscheduler.DTO.BookingDTO;
+import EasyAppointment.appointmentscheduler.DTO.CancellationBatchDTO;
+import EasyAppointment.appointmentscheduler.DTO.SlotHoldDTO;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiRequest;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.CursorPage;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.booking.BatchItemResult;
 import EasyAppointment.appointmentscheduler.services.BookingService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -32,6 +39,57 @@ public class BookingController {
         return bookingService.createNewBooking(request);
     }
 
+    /**
+     * This method handles the POST request to create a batch of bookings.
+     * @param request The request body containing the bookings to be created.
+     * @return ApiResponse containing the result of each booking
+     */
+    @PostMapping("/batch")
+    public ApiResponse<List<BatchItemResult>> createBookings(@Valid @RequestBody ApiRequest<BookingBatchDTO> request) {
+        return bookingService.createBookings(request);
+    }
+
+    /**
+     * This method handles the POST request to cancel a batch of booked appointments.
+     * @param request The request body containing the IDs of the appointments to be cancelled.
+     * @return ApiResponse containing the result of each appointment
+     */
+    @PostMapping("/cancel/batch")
+    public ApiResponse<List<BatchItemResult>> cancelAppointments(@Valid @RequestBody ApiRequest<CancellationBatchDTO> request) {
+        return bookingService.cancelAppointments(request);
+    }
+
+    /**
+     * This method handles the POST request to hold appointments during checkout.
+     * @param request The request body containing the IDs of the appointments to hold.
+     * @return ApiResponse containing SlotHoldDTO
+     */
+    @PostMapping("/hold")
+    public ApiResponse<SlotHoldDTO> holdAppointments(@RequestBody ApiRequest<BookingDTO> request) {
+        return bookingService.holdAppointments(request);
+    }
+
+    /**
+     * This method handles the POST request to confirm a hold into a booking.
+     * @param holdId The ID of the hold to be confirmed.
+     * @param request The request body containing the booking details.
+     * @return ApiResponse containing BookingDTO
+     */
+    @PostMapping("/hold/{holdId}/confirm")
+    public ApiResponse<BookingDTO> confirmHold(@PathVariable String holdId, @RequestBody ApiRequest<BookingDTO> request) {
+        return bookingService.confirmHold(holdId, request);
+    }
+
+    /**
+     * This method handles the DELETE request to release a hold.
+     * @param holdId The ID of the hold to be released.
+     * @return ApiResponse containing the ID of the released hold
+     */
+    @DeleteMapping("/hold/{holdId}")
+    public ApiResponse<String> releaseHold(@PathVariable String holdId) {
+        return bookingService.releaseHold(holdId);
+    }
+
     /**
      * This method handles the POST request to cancel a booking.
      * @param appointmentId The ID of the appointment to be cancelled.
@@ -44,16 +102,26 @@ public class BookingController {
 
     /**
      * This method handles the GET request to retrieve the bookings of the authenticated user within a specific date range.
+     * The bookings are returned one page at a time, and the cursor of the next page is sent in the X-Next-Cursor header.
      * @param startDate The start date of the range.
      * @param endDate The end date of the range.
+     * @param cursor The cursor of the page, taken from the X-Next-Cursor header of the previous page.
+     * @param size The maximum number of appointments in the page.
      * @return ApiResponse containing List of AppointmentDTO
      */
     @GetMapping("/get-my-bookings")
-    public ApiResponse<List<AppointmentDTO>> getMyBookings(@RequestParam("startDate") String startDate, @RequestParam("endDate") String endDate) {
+    public ResponseEntity<ApiResponse<List<AppointmentDTO>>> getMyBookings(@RequestParam("startDate") String startDate,
+                                                                          @RequestParam("endDate") String endDate,
+                                                                          @RequestParam(value = "cursor", required = false) String cursor,
+                                                                          @RequestParam(value = "size", defaultValue = "50") int size) {
         LocalDate start = LocalDate.parse(startDate);
         LocalDate end = LocalDate.parse(endDate);
-        List<AppointmentDTO> appointments = bookingService.getMyBookings(start, end);
-        return new ApiResponse<>(true, "Bookings fetched successfully", appointments);
+        CursorPage<AppointmentDTO> page = bookingService.getMyBookings(start, end, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(new ApiResponse<>(true, "Bookings fetched successfully", page.getItems()));
     }
 
 }
\ No newline at end of file
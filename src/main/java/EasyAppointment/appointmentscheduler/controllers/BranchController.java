@@ -6,14 +6,20 @@ import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiRequest;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
 import EasyAppointment.appointmentscheduler.services.BranchService;
 import EasyAppointment.appointmentscheduler.util.ControllerUtils;
+import EasyAppointment.appointmentscheduler.util.HttpCaching;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * This is the controller for the Branch entity.
@@ -25,15 +31,31 @@ import java.util.List;
 public class BranchController {
     private final BranchService branchService;
 
+    // How long clients may reuse the branches of a business before revalidating them
+    @Value("${http.cache.branches.max-age-seconds:60}")
+    private long branchesMaxAge;
+
     /**
      * This method handles the GET request to retrieve all branches for a specific business ID.
+     * The response carries an ETag derived from the versions of the branches and their service providers.
      * @param businessId The ID of the business.
-     * @return ResponseEntity containing ApiResponse with List of BranchDTO
+     * @param request The web request, used to answer conditional requests.
+     * @return ResponseEntity containing ApiResponse with List of BranchDTO, or 304 if the client already has it
      */
     @GetMapping("/get-all")
-    public ResponseEntity<ApiResponse<List<BranchDTO>>> getBranchesForBusinessId(@PathVariable long businessId) {
+    public ResponseEntity<ApiResponse<List<BranchDTO>>> getBranchesForBusinessId(@PathVariable long businessId,
+                                                                                WebRequest request) {
         try {
-            return ResponseEntity.ok(branchService.getBranchesForBusinessId(businessId));
+            Optional<String> eTag = branchService.getBranchesETag(businessId);
+            if (eTag.isEmpty()) { // not found, answered by getBranchesForBusinessId
+                return ResponseEntity.ok(branchService.getBranchesForBusinessId(businessId));
+            }
+            CacheControl cacheControl = HttpCaching.privateCacheControl(branchesMaxAge);
+            if (request.checkNotModified(eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).cacheControl(cacheControl).build();
+            }
+            return ResponseEntity.ok().eTag(eTag.get()).cacheControl(cacheControl)
+                    .body(branchService.getBranchesForBusinessId(businessId));
         }catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(
                     ApiResponse.<List<BranchDTO>>builder()
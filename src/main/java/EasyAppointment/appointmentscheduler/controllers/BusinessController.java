@@ -6,11 +6,18 @@ import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiRequest;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
 import EasyAppointment.appointmentscheduler.services.BusinessService;
 import EasyAppointment.appointmentscheduler.util.ControllerUtils;
+import EasyAppointment.appointmentscheduler.util.HttpCaching;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 /**
  * This is the controller for the Business entity.
@@ -22,6 +29,10 @@ import org.springframework.web.bind.annotation.*;
 public class BusinessController {
     private final BusinessService businessService;
 
+    // How long clients may reuse a business fetched by ID before revalidating it
+    @Value("${http.cache.business.max-age-seconds:60}")
+    private long businessMaxAge;
+
     /**
      * This method handles the GET request to retrieve the business details of the authenticated user.
      * @return ResponseEntity containing ApiResponse with BusinessDTO
@@ -63,11 +74,21 @@ public class BusinessController {
 
     /**
      * This method handles the GET request to retrieve the business details by ID.
+     * The response carries an ETag derived from the version of the business.
      * @param id The ID of the business to be retrieved.
-     * @return ResponseEntity containing ApiResponse with BusinessDTO
+     * @param request The web request, used to answer conditional requests.
+     * @return ResponseEntity containing ApiResponse with BusinessDTO, or 304 if the client already has it
      */
     @GetMapping("/get-business-by-id/{id}")
-    public ResponseEntity<ApiResponse<BusinessDTO>> getBusinessById(@PathVariable Long id) {
-        return ResponseEntity.ok(businessService.getBusinessById(id));
+    public ResponseEntity<ApiResponse<BusinessDTO>> getBusinessById(@PathVariable Long id, WebRequest request) {
+        Optional<String> eTag = businessService.getBusinessETag(id);
+        if (eTag.isEmpty()) { // not found, answered by getBusinessById
+            return ResponseEntity.ok(businessService.getBusinessById(id));
+        }
+        CacheControl cacheControl = HttpCaching.privateCacheControl(businessMaxAge);
+        if (request.checkNotModified(eTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(eTag.get()).cacheControl(cacheControl).body(businessService.getBusinessById(id));
     }
 }
\ No newline at end of file
@@ -3,17 +3,23 @@ package EasyAppointment.appointmentscheduler.controllers;
 import EasyAppointment.appointmentscheduler.DTO.CategoryDto;
 import EasyAppointment.appointmentscheduler.repositories.CategoryRepository;
 import EasyAppointment.appointmentscheduler.services.CategoryService;
+import EasyAppointment.appointmentscheduler.util.HttpCaching;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 /**
  * This is the controller for the Category entity.
  * It handles HTTP requests and responses related to Category operations.
+ * The list of all categories carries an ETag, so clients revalidating it get a 304 until a category changes.
  */
 @RestController
 @RequestMapping("/api/categories")
@@ -22,13 +28,23 @@ public class CategoryController {
     private final CategoryRepository categoryRepository;
     private final CategoryService categoryService;
 
+    // How long clients may reuse the list of all categories before revalidating it
+    @Value("${http.cache.categories.max-age-seconds:3600}")
+    private long categoriesMaxAge;
+
     /**
      * This method handles the GET request to retrieve all categories.
-     * @return ResponseEntity containing List of CategoryDto
+     * @param request The web request, used to answer conditional requests.
+     * @return ResponseEntity containing List of CategoryDto, or 304 if the client already has it
      */
     @GetMapping("/initial")
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<List<CategoryDto>> getAllCategories(WebRequest request) {
+        String eTag = categoryService.getAllCategoriesETag();
+        CacheControl cacheControl = HttpCaching.privateCacheControl(categoriesMaxAge);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(categoryService.getAllCategories());
     }
 
     /**
@@ -0,0 +1,99 @@
+package EasyAppointment.appointmentscheduler.controllers;
+
+import EasyAppointment.appointmentscheduler.services.BlobStore;
+import EasyAppointment.appointmentscheduler.services.ImageService;
+import EasyAppointment.appointmentscheduler.util.ImageFormat;
+import EasyAppointment.appointmentscheduler.util.ImageSize;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This is the controller for stored images.
+ * It streams images from the blob store. Since an image is addressed by the hash of its content it never changes,
+ * so responses carry its hash as a strong ETag and may be cached by clients for a year.
+ * Range requests are answered with the requested parts only.
+ * The content type is only ever one of the image types of ImageFormat, recognized from the stored bytes.
+ * Other content is sent as an attachment, so the browser never renders it from the API origin.
+ * A size can be requested to get a precomputed resized variant. When the image is processed and has no variant
+ * of that size, the original is already within the size and is cached like the variant would be.
+ * While the image is not processed, its variants are scheduled and the original is served instead,
+ * which must be revalidated so clients pick up the variant once it is stored.
+ */
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+public class ImageController {
+    private final BlobStore blobStore;
+    private final ImageService imageService;
+
+    /**
+     * This method handles the GET request to retrieve an image.
+     * @param hash The hash of the image.
+     * @param size The optional size of the image, such as "small", or the original if not provided.
+     * @param request The web request, used to answer conditional requests.
+     * @return The content of the image, or 304 if the client already has it.
+     * @throws IOException if the image cannot be read.
+     */
+    @GetMapping("/{hash}")
+    public ResponseEntity<Resource> getImage(@PathVariable String hash,
+                                             @RequestParam(required = false) String size,
+                                             WebRequest request) throws IOException {
+        Optional<Resource> variant = Optional.empty();
+        String eTag = "\"" + hash + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (size != null) {
+            String variantName = ImageSize.fromParam(size).getVariant();
+            variant = blobStore.getVariant(hash, variantName);
+            if (variant.isPresent()) {
+                eTag = "\"" + hash + "-" + variantName + "\"";
+            } else if (!imageService.isProcessed(hash)) { // not computed yet, or the work was lost
+                imageService.requestVariants(hash);
+                cacheControl = CacheControl.noCache().cachePublic();
+            }
+        }
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        Resource image = variant.isPresent() ? variant.get() : blobStore.get(hash)
+                .orElseThrow(() -> new NoSuchElementException("Image not found"));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .header("X-Content-Type-Options", "nosniff");
+        Optional<ImageFormat> format = detectFormat(image);
+        if (format.isPresent()) {
+            response.contentType(MediaType.parseMediaType(format.get().getMediaType()));
+        } else { // stored before uploads were checked, never rendered by the browser
+            response.contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(hash).build().toString());
+        }
+        return response.body(image); // Range headers are handled by Spring MVC for Resource bodies
+    }
+
+    /**
+     * This method recognizes the format of an image from its first bytes.
+     * Only the formats of ImageFormat are recognized, so the content type sent is always an image type.
+     * @param image The image.
+     * @return An optional ImageFormat, empty if the content is not one of the accepted formats.
+     * @throws IOException if the image cannot be read.
+     */
+    private Optional<ImageFormat> detectFormat(Resource image) throws IOException {
+        try (InputStream in = image.getInputStream()) {
+            return ImageFormat.detect(in.readNBytes(ImageFormat.SIGNATURE_LENGTH));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package EasyAppointment.appointmentscheduler.controllers;
+
+import EasyAppointment.appointmentscheduler.auth.PasswordHashingService;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
+import EasyAppointment.appointmentscheduler.services.SlotReservationGate;
+import EasyAppointment.appointmentscheduler.services.UserPrincipalCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * This is the controller for the runtime metrics of the application.
+ * It exposes the counters kept in memory by the services of this instance.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+    private final SlotReservationGate reservationGate;
+    private final UserPrincipalCache userPrincipalCache;
+    private final PasswordHashingService passwordHashingService;
+
+    /**
+     * This method handles the GET request to retrieve the contention metrics of the booking reservation layer.
+     * @return ApiResponse containing the metrics by name
+     */
+    @GetMapping("/reservations")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ApiResponse<Map<String, Long>> getReservationMetrics() {
+        return new ApiResponse<>(true, "Reservation metrics fetched successfully", reservationGate.getMetrics());
+    }
+
+    /**
+     * This method handles the GET request to retrieve the hit and miss metrics of the user principal cache.
+     * @return ApiResponse containing the metrics by name
+     */
+    @GetMapping("/principals")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ApiResponse<Map<String, Long>> getPrincipalCacheMetrics() {
+        return new ApiResponse<>(true, "Principal cache metrics fetched successfully", userPrincipalCache.getMetrics());
+    }
+
+    /**
+     * This method handles the GET request to retrieve the queue metrics of the password hashing executor.
+     * @return ApiResponse containing the metrics by name
+     */
+    @GetMapping("/password-hashing")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ApiResponse<Map<String, Long>> getPasswordHashingMetrics() {
+        return new ApiResponse<>(true, "Password hashing metrics fetched successfully", passwordHashingService.getMetrics());
+    }
+}
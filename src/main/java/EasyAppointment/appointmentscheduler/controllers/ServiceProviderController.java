@@ -1,8 +1,10 @@
 package EasyAppointment.appointmentscheduler.controllers;
 
+import EasyAppointment.appointmentscheduler.DTO.ScheduleGenerationJobDTO;
 import EasyAppointment.appointmentscheduler.DTO.ServiceProviderDTO;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiRequest;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
+import EasyAppointment.appointmentscheduler.services.ScheduleGenerationService;
 import EasyAppointment.appointmentscheduler.services.ServiceProviderService;
 import EasyAppointment.appointmentscheduler.util.ControllerUtils;
 import jakarta.validation.Valid;
@@ -24,6 +26,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ServiceProviderController {
     private final ServiceProviderService serviceProviderService;
+    private final ScheduleGenerationService scheduleGenerationService;
 
     /**
      * This method handles the GET request to retrieve all service providers by the authenticated business owner.
@@ -56,6 +59,19 @@ public class ServiceProviderController {
             return ResponseEntity.ok(serviceProviderService.getServiceProvidersById(branchId, serviceProviderId,businessId));
     }
 
+    /**
+     * This method handles the GET request to poll the schedule generation of a service provider.
+     * @param serviceProviderId The ID of the service provider.
+     * @return ResponseEntity containing ApiResponse with ScheduleGenerationJobDTO
+     */
+    @GetMapping("/{serviceProviderId}/schedule-status")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ScheduleGenerationJobDTO>> getScheduleGenerationStatus(
+            @PathVariable Long serviceProviderId) {
+
+            return ResponseEntity.ok(scheduleGenerationService.getLatestJob(serviceProviderId));
+    }
+
     /**
      * This method handles the POST request to create a new service provider.
      * @param request The request body containing the service provider details to be created.
@@ -151,6 +151,11 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Object> handleServiceBusyException(ServiceBusyException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(OptimisticLockingFailureException.class)
     public ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
         return buildErrorResponse("Optimistic locking failure: " + ex.getMessage(), HttpStatus.CONFLICT);
@@ -0,0 +1,17 @@
+package EasyAppointment.appointmentscheduler.exception;
+
+/**
+ * This is a custom exception class for the scenario when a bounded resource of the application is saturated.
+ * It extends the RuntimeException class, meaning it's an unchecked exception.
+ * The request can be retried later.
+ */
+public class ServiceBusyException extends RuntimeException {
+    /**
+     * This constructor is used to create a new ServiceBusyException.
+     * It takes a message as a parameter, which describes the details of the exception.
+     * @param message The detail message for the exception.
+     */
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -10,9 +10,15 @@ import java.time.LocalDateTime;
 /**
  * This class represents an appointment in the system.
  * It is a JPA entity class, and its table in the database is named "Appointment".
+ * A service provider can have only one appointment starting at a given time, and the index of that unique constraint
+ * also serves the calendar lookups by service provider and start time range.
  * It uses Lombok annotations for automatic generation of getters, setters, constructors, and builder.
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "UK_Appointment_ServiceProvider_StartTime",
+        columnNames = {"service_provider_id", "start_time"}
+), indexes = @Index(name = "IDX_Appointment_Booking_StartTime", columnList = "booking_id, start_time"))
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,7 +32,7 @@ public class Appointment {
     @SequenceGenerator(
             name = "appointment_sequence",
             sequenceName = "appointment_sequence",
-            allocationSize = 1
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -15,7 +15,7 @@ import java.util.Set;
 @Getter
 @Entity
 @Builder
-@Table(name = "booking")
+@Table(name = "booking", indexes = @Index(name = "IDX_Booking_User_Status", columnList = "user_id, status"))
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
@@ -27,7 +27,7 @@ public class Booking {
     @SequenceGenerator(
             name = "booking_sequence",
             sequenceName = "booking_sequence",
-            allocationSize = 1
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -48,11 +48,11 @@ public class Booking {
 
     /**
      * The status of the booking.
-     * It is a required field.
+     * It is a required field, stored as a SMALLINT code, and changes only through the conditional updates of
+     * BookingRepository, which allow the transitions of {@link BookingStatus#canTransitionTo(BookingStatus)}.
      */
-    @Setter
-    @Column(name = "status", nullable = false, columnDefinition = "TEXT")
-    private String status;
+    @Column(name = "status", nullable = false, columnDefinition = "SMALLINT")
+    private BookingStatus status;
 
     /**
      * The appointments associated with the booking.
@@ -0,0 +1,109 @@
+package EasyAppointment.appointmentscheduler.models;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * This enum represents the different states of a booking in the system.
+ * Each status is persisted as a compact numeric code and exposed to clients with its label.
+ * The allowed transitions form a small state machine: a confirmed booking can be partially or fully cancelled,
+ * a partially cancelled booking can lose more appointments or be fully cancelled, and a cancelled booking is final.
+ */
+public enum BookingStatus {
+    /**
+     * All the appointments of the booking are booked.
+     */
+    CONFIRMED((short) 0, "Confirmed"),
+
+    /**
+     * Some of the appointments of the booking were cancelled.
+     */
+    PARTIALLY_CANCELLED((short) 1, "Partially Cancelled"),
+
+    /**
+     * All the appointments of the booking were cancelled.
+     */
+    CANCELLED((short) 2, "Cancelled");
+
+    /**
+     * The statuses of bookings that still hold appointments.
+     */
+    public static final Set<BookingStatus> ACTIVE = EnumSet.of(CONFIRMED, PARTIALLY_CANCELLED);
+
+    private final short code;
+    private final String label;
+
+    BookingStatus(short code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    /**
+     * This method returns the code persisted in the database.
+     * @return The code of the status.
+     */
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * This method returns the label shown to clients.
+     * @return The label of the status.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * This method checks if a booking with this status still holds appointments.
+     * @return A boolean indicating whether the status is active.
+     */
+    public boolean isActive() {
+        return ACTIVE.contains(this);
+    }
+
+    /**
+     * This method checks if a booking can move from this status to another one.
+     * @param next The next status.
+     * @return A boolean indicating whether the transition is allowed.
+     */
+    public boolean canTransitionTo(BookingStatus next) {
+        return switch (this) {
+            case CONFIRMED -> next == PARTIALLY_CANCELLED || next == CANCELLED;
+            case PARTIALLY_CANCELLED -> next == PARTIALLY_CANCELLED || next == CANCELLED;
+            case CANCELLED -> false;
+        };
+    }
+
+    /**
+     * This method finds the statuses a booking can move from to each of the given statuses.
+     * The conditional updates of the bookings use it, so the transitions are defined only here.
+     * @param targets The statuses the booking may move to.
+     * @return The statuses that can move to every target.
+     */
+    public static Set<BookingStatus> sourcesOf(BookingStatus... targets) {
+        Set<BookingStatus> sources = EnumSet.noneOf(BookingStatus.class);
+        for (BookingStatus status : values()) {
+            if (Arrays.stream(targets).allMatch(status::canTransitionTo)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * This method finds the status with a given persisted code.
+     * @param code The code of the status.
+     * @return The BookingStatus with the code.
+     * @throws IllegalArgumentException if no status has the code.
+     */
+    public static BookingStatus fromCode(short code) {
+        for (BookingStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown booking status code: " + code);
+    }
+}
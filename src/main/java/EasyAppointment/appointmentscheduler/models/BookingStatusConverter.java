@@ -0,0 +1,23 @@
+package EasyAppointment.appointmentscheduler.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * This class converts a BookingStatus to the numeric code stored in the database and back.
+ * Unlike an ordinal mapping, the codes stay stable if the enum constants are reordered.
+ * It uses the JPA @Converter annotation so it is applied to every BookingStatus attribute.
+ */
+@Converter(autoApply = true)
+public class BookingStatusConverter implements AttributeConverter<BookingStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(BookingStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public BookingStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : BookingStatus.fromCode(code);
+    }
+}
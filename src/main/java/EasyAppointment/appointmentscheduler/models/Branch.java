@@ -71,15 +71,23 @@ public class  Branch {
     private LocalTime openingHours;
 
     /**
-     * The image of the branch.
+     * The hash of the image of the branch in the blob store.
+     * The image content itself is never stored in the table, so loading the entity never reads it.
      * It is not a required field.
      */
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
     @Getter
     @Setter
-    @Column(name = "branch_image", nullable = true)
-    private byte[] branchImage;
+    @Column(name = "branch_image_hash", nullable = true, columnDefinition = "TEXT")
+    private String branchImageHash;
+
+    /**
+     * The version of the branch, incremented by JPA on every change.
+     * It is used for optimistic locking and to derive the ETags of the responses that contain the branch.
+     */
+    @Version
+    @Getter
+    @Column(name = "version", nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int version;
 
     /**
      * The business associated with the branch.
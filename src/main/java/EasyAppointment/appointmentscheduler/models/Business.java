@@ -44,6 +44,15 @@ public class Business {
     @Column(name = "name", nullable = false, columnDefinition = "TEXT")
     private String name;
 
+    /**
+     * The version of the business, incremented by JPA on every change.
+     * It is used for optimistic locking and to derive the ETags of the responses that contain the business.
+     */
+    @Version
+    @Getter
+    @Column(name = "version", nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int version;
+
     /**
      * The branches associated with the business.
      * One business can be associated with many branches.
@@ -63,14 +72,14 @@ public class Business {
     private Set<Favorite> favorites = new HashSet<>();
 
     /**
-     * The logo image of the business.
+     * The hash of the logo image of the business in the blob store.
+     * The image content itself is never stored in the table, so loading the entity never reads it.
      * It is not a required field.
      */
-    @Lob
-    @Basic(fetch = FetchType.LAZY) // Lazy load large data
     @Getter
     @Setter
-    private byte[] logoImage;
+    @Column(name = "logo_image_hash", nullable = true, columnDefinition = "TEXT")
+    private String logoImageHash;
 
     /**
      * The categories associated with the business.
@@ -0,0 +1,26 @@
+package EasyAppointment.appointmentscheduler.models;
+
+/**
+ * This enum represents the different states of a background job in the system.
+ */
+public enum JobStatus {
+    /**
+     * The job is waiting for a free worker.
+     */
+    PENDING,
+
+    /**
+     * The job is being processed.
+     */
+    RUNNING,
+
+    /**
+     * The job completed successfully.
+     */
+    DONE,
+
+    /**
+     * The job stopped because of an error.
+     */
+    FAILED
+}
@@ -0,0 +1,88 @@
+package EasyAppointment.appointmentscheduler.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * This class represents the generation of a service provider's schedule in the system.
+ * It is a JPA entity class, and its table in the database is named "schedule_generation_job".
+ * It tracks the progress of the generation so it can be polled while it runs in the background.
+ * It uses Lombok annotations for automatic generation of getters, setters, constructors, and builder.
+ */
+@Entity
+@Table(name = "schedule_generation_job")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleGenerationJob {
+    /**
+     * The ID of the job. It is the primary key in the "schedule_generation_job" table.
+     * It is generated automatically by a sequence generator named "schedule_generation_job_sequence".
+     */
+    @Id
+    @SequenceGenerator(
+            name = "schedule_generation_job_sequence",
+            sequenceName = "schedule_generation_job_sequence",
+            allocationSize = 1
+    )
+    @GeneratedValue(
+            strategy = GenerationType.SEQUENCE,
+            generator = "schedule_generation_job_sequence"
+    )
+    @Column(name = "job_id", updatable = false)
+    private Long id;
+
+    /**
+     * The ID of the service provider whose schedule is generated.
+     * It is not a foreign key, so the job history does not prevent deleting the service provider.
+     */
+    @Column(name = "service_provider_id", nullable = false)
+    private Long serviceProviderId;
+
+    /**
+     * The status of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private JobStatus status;
+
+    /**
+     * The number of weekly chunks to generate.
+     */
+    @Column(name = "total_chunks", nullable = false)
+    private int totalChunks;
+
+    /**
+     * The number of weekly chunks already committed.
+     */
+    @Column(name = "completed_chunks", nullable = false)
+    private int completedChunks;
+
+    /**
+     * The number of appointments generated so far.
+     */
+    @Column(name = "generated_slots", nullable = false)
+    private long generatedSlots;
+
+    /**
+     * The error message if the job failed.
+     */
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    /**
+     * The time the job was created.
+     */
+    @Column(name = "created_at", nullable = false, columnDefinition = "TIMESTAMP")
+    private LocalDateTime createdAt;
+
+    /**
+     * The time the job was last updated.
+     */
+    @Column(name = "updated_at", nullable = false, columnDefinition = "TIMESTAMP")
+    private LocalDateTime updatedAt;
+}
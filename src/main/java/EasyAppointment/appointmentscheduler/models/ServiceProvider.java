@@ -1,8 +1,10 @@
 package EasyAppointment.appointmentscheduler.models;
 
+import EasyAppointment.appointmentscheduler.util.BreakTimes;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDate;
 import java.util.Set;
 
 /**
@@ -54,7 +56,8 @@ public class ServiceProvider {
     private boolean[] workingDays;
 
     /**
-     * The break hour of the service provider.
+     * The break hour of the service provider, as the legacy text of the break times.
+     * It is kept in sync with the break minutes for the readers of the old column.
      * It is a required field.
      */
     @Getter
@@ -62,6 +65,14 @@ public class ServiceProvider {
     @Column(name = "breakTime", nullable = false, columnDefinition = "TEXT")
     private String breakHour;
 
+    /**
+     * The breaks of the service provider, as consecutive pairs of start and end minutes from midnight.
+     * Rows written before this column existed are filled from the break hour once, by BreakMinutesMigration.
+     */
+    @Setter
+    @Column(name = "break_minutes", nullable = true, columnDefinition = "int[]")
+    private int[] breakMinutes;
+
     /**
      * The session duration of the service provider.
      * It is a required field.
@@ -72,15 +83,24 @@ public class ServiceProvider {
     private int sessionDuration;
 
     /**
-     * The image of the service provider.
+     * The last date up to which the appointments of the service provider are generated.
+     * It is only used when virtual slots are disabled, as the watermark of the nightly horizon extension.
      * It is not a required field.
      */
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
     @Getter
     @Setter
-    @Column(name = "service_provider_image", nullable = true)
-    private byte[] serviceProviderImage;
+    @Column(name = "scheduled_until", nullable = true)
+    private LocalDate scheduledUntil;
+
+    /**
+     * The hash of the image of the service provider in the blob store.
+     * The image content itself is never stored in the table, so loading the entity never reads it.
+     * It is not a required field.
+     */
+    @Getter
+    @Setter
+    @Column(name = "service_provider_image_hash", nullable = true, columnDefinition = "TEXT")
+    private String serviceProviderImageHash;
 
     /**
      * The appointments associated with the service provider.
@@ -109,4 +129,13 @@ public class ServiceProvider {
     @Getter
     @OneToMany(mappedBy = "serviceProvider", cascade = CascadeType.ALL)
     private Set<Booking> bookings;
+
+    /**
+     * This method returns the breaks of the service provider.
+     * A row the migration could not convert is parsed from the legacy break hour without changing the entity.
+     * @return The breaks as consecutive pairs of start and end minutes.
+     */
+    public int[] getBreakMinutes() {
+        return breakMinutes != null ? breakMinutes : BreakTimes.parseLegacy(breakHour);
+    }
 }
\ No newline at end of file
@@ -82,6 +82,13 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     private Role role;
 
+    /**
+     * The version of the user's tokens.
+     * It is incremented whenever the claims carried by the user's tokens become stale, such as on a role change.
+     */
+    @Column(name = "token_version", nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private int tokenVersion;
+
     /**
      * The bookings associated with the user.
      * One user can have many bookings.
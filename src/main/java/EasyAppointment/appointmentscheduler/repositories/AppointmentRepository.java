@@ -1,17 +1,31 @@
 package EasyAppointment.appointmentscheduler.repositories;
 
+import EasyAppointment.appointmentscheduler.DTO.AppointmentBookingDTO;
+import EasyAppointment.appointmentscheduler.DTO.AppointmentDTO;
+import EasyAppointment.appointmentscheduler.DTO.BookedSlotDTO;
+import EasyAppointment.appointmentscheduler.DTO.ServiceProviderStatsDTO;
 import EasyAppointment.appointmentscheduler.models.Appointment;
+import EasyAppointment.appointmentscheduler.models.Booking;
+import EasyAppointment.appointmentscheduler.models.BookingStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * This interface represents the repository for the Appointment entity.
- * It extends JpaRepository to provide CRUD operations for the Appointment entity.
- * It also declares a custom query method to find appointments by service provider ID and start time.
+ * It extends JpaRepository to provide CRUD operations for the Appointment entity,
+ * and BulkInsertRepository to insert generated appointments in batches.
+ * It also declares custom query methods to find appointments by service provider ID and start time,
+ * and the set-based statements used to book and cancel appointments.
  */
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, BulkInsertRepository<Appointment> {
     /**
      * Finds appointments by service provider ID and start time.
      * The start time is between two specified LocalDateTime objects.
@@ -22,4 +36,193 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
      */
     List<Appointment> findByServiceProviderIdAndStartTimeBetween(Long serviceProviderId, LocalDateTime localDateTime, LocalDateTime localDateTime1);
 
-}
\ No newline at end of file
+    /**
+     * Finds the appointments of a service provider in a start time range, as AppointmentDTO objects.
+     * Only the columns of the DTO are selected, in a single query with the booking details joined,
+     * instead of loading the entities and their associations one by one.
+     * @param serviceProviderId The ID of the service provider.
+     * @param from The start of the time range.
+     * @param to The end of the time range.
+     * @return A list of AppointmentDTO objects sorted by start time.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.AppointmentDTO(" +
+            "a.id, a.startTime, a.endTime, a.duration, a.isAvailable, b.bookingId, a.serviceProvider.id, u.fullName, bu.name) " +
+            "FROM Appointment a " +
+            "LEFT JOIN a.booking b LEFT JOIN b.user u " +
+            "LEFT JOIN b.serviceProvider bsp LEFT JOIN bsp.branch br LEFT JOIN br.business bu " +
+            "WHERE a.serviceProvider.id = :serviceProviderId AND a.startTime BETWEEN :from AND :to " +
+            "ORDER BY a.startTime")
+    List<AppointmentDTO> findSlotsByServiceProviderIdAndStartTimeBetween(@Param("serviceProviderId") Long serviceProviderId,
+                                                                         @Param("from") LocalDateTime from,
+                                                                         @Param("to") LocalDateTime to);
+
+    /**
+     * Finds a page of the booked appointments of a user, as AppointmentDTO objects sorted by start time and ID.
+     * The bookings are filtered by status and the appointments by time range in the query,
+     * and the page starts after the given start time and ID.
+     * @param userId The ID of the user.
+     * @param statuses The statuses of the bookings.
+     * @param from The earliest start time.
+     * @param to The latest end time, exclusive.
+     * @param afterStartTime The start time of the last appointment of the previous page.
+     * @param afterId The ID of the last appointment of the previous page.
+     * @param pageable The size of the page.
+     * @return A list of AppointmentDTO objects.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.AppointmentDTO(" +
+            "a.id, a.startTime, a.endTime, a.duration, a.isAvailable, b.bookingId, a.serviceProvider.id, u.fullName, bu.name) " +
+            "FROM Appointment a JOIN a.booking b JOIN b.user u " +
+            "LEFT JOIN b.serviceProvider bsp LEFT JOIN bsp.branch br LEFT JOIN br.business bu " +
+            "WHERE u.id = :userId AND b.status IN :statuses AND a.startTime >= :from AND a.endTime < :to " +
+            "AND (a.startTime > :afterStartTime OR (a.startTime = :afterStartTime AND a.id > :afterId)) " +
+            "ORDER BY a.startTime, a.id")
+    List<AppointmentDTO> findBookedAppointmentsOfUser(@Param("userId") Long userId,
+                                                      @Param("statuses") Collection<BookingStatus> statuses,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to,
+                                                      @Param("afterStartTime") LocalDateTime afterStartTime,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    /**
+     * Finds the booked appointments of a user that end after a specific time, as AppointmentDTO objects sorted by start time.
+     * @param userId The ID of the user.
+     * @param statuses The statuses of the bookings.
+     * @param endAfter The time after which the appointments end.
+     * @return A list of AppointmentDTO objects.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.AppointmentDTO(" +
+            "a.id, a.startTime, a.endTime, a.duration, a.isAvailable, b.bookingId, a.serviceProvider.id, u.fullName, bu.name) " +
+            "FROM Appointment a JOIN a.booking b JOIN b.user u " +
+            "LEFT JOIN b.serviceProvider bsp LEFT JOIN bsp.branch br LEFT JOIN br.business bu " +
+            "WHERE u.id = :userId AND b.status IN :statuses AND a.endTime >= :endAfter " +
+            "ORDER BY a.startTime, a.id")
+    List<AppointmentDTO> findBookedAppointmentsOfUserEndingAfter(@Param("userId") Long userId,
+                                                                 @Param("statuses") Collection<BookingStatus> statuses,
+                                                                 @Param("endAfter") LocalDateTime endAfter);
+
+    /**
+     * Finds the appointment of a service provider that starts at a specific time.
+     * @param serviceProviderId The ID of the service provider.
+     * @param startTime The start time of the appointment.
+     * @return An optional appointment that matches the specified criteria.
+     */
+    Optional<Appointment> findByServiceProviderIdAndStartTime(Long serviceProviderId, LocalDateTime startTime);
+
+    /**
+     * Finds the start time of the latest appointment of a service provider.
+     * @param serviceProviderId The ID of the service provider.
+     * @return An optional start time, empty if the service provider has no appointments.
+     */
+    @Query("SELECT MAX(a.startTime) FROM Appointment a WHERE a.serviceProvider.id = :serviceProviderId")
+    Optional<LocalDateTime> findLatestStartTime(@Param("serviceProviderId") Long serviceProviderId);
+
+    /**
+     * Finds the earliest available appointment and counts the booked appointments of several service providers,
+     * from a given time on, grouped by service provider.
+     * Service providers without appointments from that time on are not returned.
+     * @param serviceProviderIds The IDs of the service providers.
+     * @param from The start of the time range.
+     * @return A list of ServiceProviderStatsDTO objects.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.ServiceProviderStatsDTO(a.serviceProvider.id, " +
+            "MIN(CASE WHEN a.isAvailable = true THEN a.startTime ELSE NULL END), " +
+            "SUM(CASE WHEN a.isAvailable = false THEN 1L ELSE 0L END)) " +
+            "FROM Appointment a WHERE a.serviceProvider.id IN :serviceProviderIds AND a.startTime >= :from " +
+            "GROUP BY a.serviceProvider.id")
+    List<ServiceProviderStatsDTO> findUpcomingStats(@Param("serviceProviderIds") Collection<Long> serviceProviderIds,
+                                                    @Param("from") LocalDateTime from);
+
+    /**
+     * Finds the start times of the booked appointments of several service providers in a time range.
+     * @param serviceProviderIds The IDs of the service providers.
+     * @param from The start of the time range.
+     * @param to The end of the time range.
+     * @return A list of BookedSlotDTO objects.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.BookedSlotDTO(a.serviceProvider.id, a.startTime) " +
+            "FROM Appointment a WHERE a.serviceProvider.id IN :serviceProviderIds AND a.isAvailable = false " +
+            "AND a.startTime BETWEEN :from AND :to")
+    List<BookedSlotDTO> findBookedSlots(@Param("serviceProviderIds") Collection<Long> serviceProviderIds,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    /**
+     * Counts the available appointments among the given IDs.
+     * @param appointmentIds The IDs of the appointments.
+     * @return The number of available appointments.
+     */
+    long countByIdInAndIsAvailableTrue(Collection<Long> appointmentIds);
+
+    /**
+     * Atomically books the available appointments among the given IDs.
+     * The availability check and the update are a single statement, so concurrent claims of the same appointment
+     * are serialized by the database and only one of them updates the row.
+     * The pending changes are flushed before, and the persistence context is cleared after, since it bypasses it.
+     * @param appointmentIds The IDs of the appointments to book.
+     * @param booking The booking the appointments are added to.
+     * @return The number of claimed appointments.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.isAvailable = false, a.booking = :booking, a.version = a.version + 1 " +
+            "WHERE a.id IN :appointmentIds AND a.isAvailable = true")
+    int claimAppointments(@Param("appointmentIds") Collection<Long> appointmentIds, @Param("booking") Booking booking);
+
+    /**
+     * Finds the bookings of the given appointments, as AppointmentBookingDTO objects.
+     * Appointments that are not booked are not returned.
+     * @param appointmentIds The IDs of the appointments.
+     * @return A list of AppointmentBookingDTO objects.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.AppointmentBookingDTO(a.id, b.bookingId, b.status, u.email) " +
+            "FROM Appointment a JOIN a.booking b JOIN b.user u WHERE a.id IN :appointmentIds")
+    List<AppointmentBookingDTO> findBookingsOfAppointments(@Param("appointmentIds") Collection<Long> appointmentIds);
+
+    /**
+     * Releases booked appointments, as long as they still belong to the given bookings.
+     * @param appointmentIds The IDs of the appointments to release.
+     * @param bookingIds The IDs of the bookings the appointments are expected to belong to.
+     * @return The number of released appointments.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.isAvailable = true, a.booking = null, a.version = a.version + 1 " +
+            "WHERE a.id IN :appointmentIds AND a.booking.bookingId IN :bookingIds")
+    int releaseAppointments(@Param("appointmentIds") Collection<Long> appointmentIds,
+                            @Param("bookingIds") Collection<Long> bookingIds);
+
+    /**
+     * Finds the IDs of the appointments of a booking.
+     * @param bookingId The ID of the booking.
+     * @return A list of appointment IDs.
+     */
+    @Query("SELECT a.id FROM Appointment a WHERE a.booking.bookingId = :bookingId")
+    List<Long> findIdsByBookingId(@Param("bookingId") Long bookingId);
+
+    /**
+     * Releases all the appointments of a booking.
+     * @param bookingId The ID of the booking.
+     * @return The number of released appointments.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.isAvailable = true, a.booking = null, a.version = a.version + 1 " +
+            "WHERE a.booking.bookingId = :bookingId")
+    int releaseAppointmentsOfBooking(@Param("bookingId") Long bookingId);
+
+    /**
+     * Releases all the appointments of the given bookings.
+     * @param bookings The bookings whose appointments are released.
+     * @return The number of released appointments.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.isAvailable = true, a.booking = null, a.version = a.version + 1 " +
+            "WHERE a.booking IN :bookings")
+    int releaseAppointmentsOfBookings(@Param("bookings") Collection<Booking> bookings);
+
+    /**
+     * Finds the IDs of the appointments among the given IDs that are not booked.
+     * @param appointmentIds The IDs of the appointments.
+     * @return A list of appointment IDs.
+     */
+    @Query("SELECT a.id FROM Appointment a WHERE a.id IN :appointmentIds AND a.booking IS NULL")
+    List<Long> findUnbookedIds(@Param("appointmentIds") Collection<Long> appointmentIds);
+}
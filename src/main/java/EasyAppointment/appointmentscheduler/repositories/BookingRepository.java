@@ -1,20 +1,26 @@
 package EasyAppointment.appointmentscheduler.repositories;
 
+import EasyAppointment.appointmentscheduler.DTO.BookingDTO;
 import EasyAppointment.appointmentscheduler.models.Booking;
+import EasyAppointment.appointmentscheduler.models.BookingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 /**
  * This interface represents the repository for the Booking entity.
- * It extends JpaRepository to provide CRUD operations for the Booking entity.
- * It also declares custom query methods to find bookings by user ID and by all appointments.
+ * It extends JpaRepository to provide CRUD operations for the Booking entity,
+ * and BulkInsertRepository to insert bookings in batches.
+ * It also declares custom query methods to find bookings by user ID and by all appointments,
+ * and the set-based statements used to cancel bookings.
  */
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BulkInsertRepository<Booking> {
     /**
      * Finds bookings by user ID.
      * @param userId The ID of the user.
@@ -22,6 +28,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      */
     List<Booking> findByUserId(Long userId);
 
+    /**
+     * Checks if a user has any booking.
+     * @param userId The ID of the user.
+     * @return true if the user has at least one booking, false otherwise.
+     */
+    boolean existsByUserId(Long userId);
+
     /**
      * Finds a booking by all appointments.
      * The query selects distinct bookings that join with appointments where the appointment ID is in the specified set.
@@ -35,4 +48,51 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Optional<Booking> findBookingByAllAppointments(@Param("appointmentIds") Set<Long> appointmentIds,
                                                    @Param("numberOfAppointments") long numberOfAppointments);
 
-}
\ No newline at end of file
+    /**
+     * Finds the bookings among the given IDs that a user can manage,
+     * because the user belongs to the business of the booked service provider.
+     * @param bookingIds The IDs of the bookings.
+     * @param email The email of the user.
+     * @return A set of booking IDs.
+     */
+    @Query("SELECT b.bookingId FROM Booking b JOIN b.serviceProvider sp JOIN sp.branch br JOIN br.business bs JOIN bs.users u " +
+            "WHERE b.bookingId IN :bookingIds AND u.email = :email")
+    Set<Long> findBookingIdsManagedBy(@Param("bookingIds") Collection<Long> bookingIds, @Param("email") String email);
+
+    /**
+     * Updates the status of bookings after some of their appointments were released.
+     * A booking without appointments left is cancelled, otherwise it is partially cancelled.
+     * Only bookings in one of the given source statuses are changed.
+     * @param bookingIds The IDs of the bookings.
+     * @param sources The statuses that can move to both partially cancelled and cancelled.
+     * @return The number of updated bookings.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = CASE WHEN EXISTS (SELECT a.id FROM Appointment a WHERE a.booking = b) " +
+            "THEN EasyAppointment.appointmentscheduler.models.BookingStatus.PARTIALLY_CANCELLED ELSE EasyAppointment.appointmentscheduler.models.BookingStatus.CANCELLED END, " +
+            "b.version = b.version + 1 " +
+            "WHERE b.bookingId IN :bookingIds AND b.status IN :sources")
+    int updateStatusAfterCancellation(@Param("bookingIds") Collection<Long> bookingIds,
+                                      @Param("sources") Collection<BookingStatus> sources);
+
+    /**
+     * Finds the booking of an appointment, as a BookingDTO without its appointments.
+     * @param appointmentId The ID of the appointment.
+     * @return An optional BookingDTO, empty if the appointment does not exist or is not booked.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.BookingDTO(b.bookingId, b.bookingTime, b.status, b.user.id, b.serviceProvider.id) " +
+            "FROM Appointment a JOIN a.booking b WHERE a.id = :appointmentId")
+    Optional<BookingDTO> findBookingOfAppointment(@Param("appointmentId") Long appointmentId);
+
+    /**
+     * Cancels a booking if it is in one of the given source statuses.
+     * The status check and the update are a single statement, so only one of concurrent cancellations succeeds.
+     * @param bookingId The ID of the booking.
+     * @param sources The statuses that can move to cancelled.
+     * @return The number of cancelled bookings, 0 or 1.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = EasyAppointment.appointmentscheduler.models.BookingStatus.CANCELLED, b.version = b.version + 1 " +
+            "WHERE b.bookingId = :bookingId AND b.status IN :sources")
+    int cancelBooking(@Param("bookingId") Long bookingId, @Param("sources") Collection<BookingStatus> sources);
+}
@@ -1,8 +1,11 @@
 package EasyAppointment.appointmentscheduler.repositories;
 
+import EasyAppointment.appointmentscheduler.DTO.CatalogVersionDTO;
 import EasyAppointment.appointmentscheduler.models.Branch;
 import EasyAppointment.appointmentscheduler.models.Business;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -35,4 +38,13 @@ public interface BranchRepository extends JpaRepository<Branch, Long> {
      * @return true if a branch exists that matches the specified name and business, false otherwise.
      */
     boolean existsByNameAndBusiness(String name, Business business);
+
+    /**
+     * Finds the version of the branches of a business, which changes when a branch is added, removed or updated.
+     * @param businessId The ID of the business.
+     * @return The CatalogVersionDTO of the branches.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.CatalogVersionDTO(COUNT(b), MAX(b.id), SUM(b.version)) " +
+            "FROM Branch b WHERE b.business.id = :businessId")
+    CatalogVersionDTO findCatalogVersionByBusinessId(@Param("businessId") Long businessId);
 }
\ No newline at end of file
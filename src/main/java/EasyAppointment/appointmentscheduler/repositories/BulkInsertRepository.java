@@ -0,0 +1,19 @@
+package EasyAppointment.appointmentscheduler.repositories;
+
+/**
+ * This interface represents a repository fragment for inserting many new entities at once.
+ * Repositories extend it next to JpaRepository to get a bulk insert path.
+ *
+ * @param <T> The type of the entity.
+ */
+public interface BulkInsertRepository<T> {
+    /**
+     * Inserts new entities in JDBC batches.
+     * The entities are flushed when the method returns, so they have their IDs and rows.
+     * When there are more entities than one batch, the persistence context is cleared between batches to keep memory flat,
+     * so entities loaded earlier in the same transaction and the inserted entities of earlier batches become detached.
+     * Callers that insert more than one batch must not rely on those entities staying managed.
+     * @param entities The new entities to insert.
+     */
+    void persistAll(Iterable<T> entities);
+}
@@ -0,0 +1,43 @@
+package EasyAppointment.appointmentscheduler.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class implements the BulkInsertRepository fragment.
+ * It persists the entities through the EntityManager and flushes them every batch,
+ * which together with pooled ID allocation lets Hibernate send the inserts as JDBC batches.
+ * The persistence context is only cleared between batches, so inserting a single batch never detaches anything.
+ *
+ * @param <T> The type of the entity.
+ */
+public class BulkInsertRepositoryImpl<T> implements BulkInsertRepository<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${persistence.jdbc.batch-size:50}")
+    private int batchSize;
+
+    /**
+     * Inserts new entities in JDBC batches.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param entities The new entities to insert.
+     */
+    @Override
+    @Transactional
+    public void persistAll(Iterable<T> entities) {
+        int count = 0;
+        for (T entity : entities) {
+            if (count > 0 && count % batchSize == 0) { // another batch follows, release the previous one
+                entityManager.flush();
+                entityManager.clear();
+            }
+            entityManager.persist(entity);
+            count++;
+        }
+        entityManager.flush();
+    }
+}
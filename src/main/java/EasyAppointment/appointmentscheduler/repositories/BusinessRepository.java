@@ -3,6 +3,8 @@ package EasyAppointment.appointmentscheduler.repositories;
 import EasyAppointment.appointmentscheduler.models.Business;
 import EasyAppointment.appointmentscheduler.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -28,4 +30,12 @@ public interface BusinessRepository extends JpaRepository<Business, Long> {
      */
 
     boolean existsByName(String name);
+
+    /**
+     * Finds the version of a business.
+     * @param id The ID of the business.
+     * @return An optional version, empty if the business does not exist.
+     */
+    @Query("SELECT b.version FROM Business b WHERE b.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package EasyAppointment.appointmentscheduler.repositories;
 
+import EasyAppointment.appointmentscheduler.DTO.CatalogVersionDTO;
 import EasyAppointment.appointmentscheduler.models.Business;
 import EasyAppointment.appointmentscheduler.models.Category;
 import jakarta.annotation.Nonnull;
@@ -50,4 +51,19 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
             "WHERE EXISTS (SELECT 1 FROM Business WHERE business_id = bc.business_id)) AS sub " +
             "ORDER BY RANDOM()", nativeQuery = true)
     List<Category> findRandomSevenCategories();
+
+    /**
+     * Finds the version of the categories, which changes when a category is added.
+     * @return The CatalogVersionDTO of the categories.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.CatalogVersionDTO(COUNT(c), MAX(c.id)) FROM Category c")
+    CatalogVersionDTO findCatalogVersion();
+
+    /**
+     * Finds the version of the links between categories and businesses, which changes when a business is added or removed.
+     * @return The CatalogVersionDTO of the links.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.CatalogVersionDTO(COUNT(b), MAX(b.id)) " +
+            "FROM Category c JOIN c.businesses b")
+    CatalogVersionDTO findBusinessLinksVersion();
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package EasyAppointment.appointmentscheduler.repositories;
+
+import EasyAppointment.appointmentscheduler.models.JobStatus;
+import EasyAppointment.appointmentscheduler.models.ScheduleGenerationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * This interface represents the repository for the ScheduleGenerationJob entity.
+ * It extends JpaRepository to provide CRUD operations for the ScheduleGenerationJob entity.
+ * It also declares a custom query method to find the latest job of a service provider,
+ * and the statement that fails the jobs that stopped making progress.
+ */
+public interface ScheduleGenerationJobRepository extends JpaRepository<ScheduleGenerationJob, Long> {
+    /**
+     * Finds the most recently created job of a service provider.
+     * @param serviceProviderId The ID of the service provider.
+     * @return An optional job that belongs to the specified service provider.
+     */
+    Optional<ScheduleGenerationJob> findFirstByServiceProviderIdOrderByCreatedAtDesc(Long serviceProviderId);
+
+    /**
+     * Fails the jobs that are still pending or running but were not updated since a given time.
+     * Such jobs were lost with the executor that held them, typically by a restart.
+     * @param activeStatuses The statuses of the jobs that are still generating.
+     * @param staleBefore The time before which an active job is considered lost.
+     * @param failed The status to set.
+     * @param errorMessage The error message to set.
+     * @param now The current time.
+     * @return The number of failed jobs.
+     */
+    @Modifying
+    @Query("UPDATE ScheduleGenerationJob j SET j.status = :failed, j.errorMessage = :errorMessage, j.updatedAt = :now " +
+            "WHERE j.status IN :activeStatuses AND j.updatedAt < :staleBefore")
+    int failStaleJobs(@Param("activeStatuses") Collection<JobStatus> activeStatuses,
+                      @Param("staleBefore") LocalDateTime staleBefore,
+                      @Param("failed") JobStatus failed,
+                      @Param("errorMessage") String errorMessage,
+                      @Param("now") LocalDateTime now);
+}
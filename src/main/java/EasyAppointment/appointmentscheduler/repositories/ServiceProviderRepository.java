@@ -1,12 +1,26 @@
 package EasyAppointment.appointmentscheduler.repositories;
 
+import EasyAppointment.appointmentscheduler.DTO.CatalogVersionDTO;
+import EasyAppointment.appointmentscheduler.DTO.ScheduleRulesDTO;
+import EasyAppointment.appointmentscheduler.models.JobStatus;
 import EasyAppointment.appointmentscheduler.models.ServiceProvider;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * This interface represents the repository for the ServiceProvider entity.
  * It extends JpaRepository to provide CRUD operations for the ServiceProvider entity.
- * It also declares a custom query method to check if a service provider exists by name and branch ID.
+ * It also declares a custom query method to check if a service provider exists by name and branch ID,
+ * the projection of the schedule rules, and the queries that maintain the schedule watermark of the service providers.
  */
 public interface ServiceProviderRepository extends JpaRepository<ServiceProvider, Long> {
 
@@ -17,4 +31,59 @@ public interface ServiceProviderRepository extends JpaRepository<ServiceProvider
      * @return true if a service provider exists that matches the specified name and branch ID, false otherwise.
      */
     boolean existsByNameAndBranchId(String name, Long branchId);
-}
\ No newline at end of file
+
+    /**
+     * Finds the schedule rules of a service provider, together with the opening hours of its branch.
+     * @param serviceProviderId The ID of the service provider.
+     * @return An optional ScheduleRulesDTO, empty if the service provider does not exist.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.ScheduleRulesDTO(" +
+            "sp.id, sp.workingDays, sp.breakMinutes, sp.breakHour, sp.sessionDuration, br.openingHours, br.closingHours) " +
+            "FROM ServiceProvider sp JOIN sp.branch br WHERE sp.id = :serviceProviderId")
+    Optional<ScheduleRulesDTO> findScheduleRules(@Param("serviceProviderId") Long serviceProviderId);
+
+    /**
+     * Finds the IDs of the service providers whose schedule ends before the horizon, ordered by ID.
+     * Service providers with a pending or running generation job are skipped, the job already covers them,
+     * unless the job was not updated since the given time, which means it was lost.
+     * It is paged by ID so each page is a range scan on the primary key.
+     * @param afterId The last ID of the previous page, or 0 for the first page.
+     * @param horizon The scheduling horizon.
+     * @param activeStatuses The statuses of the jobs that are still generating.
+     * @param staleBefore The time before which an active job is considered lost.
+     * @param pageable The size of the page.
+     * @return A list of service provider IDs.
+     */
+    @Query("SELECT sp.id FROM ServiceProvider sp WHERE sp.id > :afterId " +
+            "AND (sp.scheduledUntil IS NULL OR sp.scheduledUntil < :horizon) " +
+            "AND NOT EXISTS (SELECT j FROM ScheduleGenerationJob j WHERE j.serviceProviderId = sp.id " +
+            "AND j.status IN :activeStatuses AND j.updatedAt >= :staleBefore) " +
+            "ORDER BY sp.id")
+    List<Long> findIdsScheduledBefore(@Param("afterId") Long afterId,
+                                      @Param("horizon") LocalDate horizon,
+                                      @Param("activeStatuses") Collection<JobStatus> activeStatuses,
+                                      @Param("staleBefore") LocalDateTime staleBefore,
+                                      Pageable pageable);
+
+    /**
+     * Moves the schedule watermark of a service provider forward.
+     * The watermark never moves backwards, so replaying a chunk is harmless.
+     * @param serviceProviderId The ID of the service provider.
+     * @param scheduledUntil The last generated date.
+     * @return The number of updated rows.
+     */
+    @Modifying
+    @Query("UPDATE ServiceProvider sp SET sp.scheduledUntil = :scheduledUntil WHERE sp.id = :serviceProviderId " +
+            "AND (sp.scheduledUntil IS NULL OR sp.scheduledUntil < :scheduledUntil)")
+    int advanceScheduledUntil(@Param("serviceProviderId") Long serviceProviderId,
+                              @Param("scheduledUntil") LocalDate scheduledUntil);
+
+    /**
+     * Finds the version of the service providers of a business, which changes when a service provider is added or removed.
+     * @param businessId The ID of the business.
+     * @return The CatalogVersionDTO of the service providers.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.CatalogVersionDTO(COUNT(sp), MAX(sp.id)) " +
+            "FROM ServiceProvider sp WHERE sp.branch.business.id = :businessId")
+    CatalogVersionDTO findCatalogVersionByBusinessId(@Param("businessId") Long businessId);
+}
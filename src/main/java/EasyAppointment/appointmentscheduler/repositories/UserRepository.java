@@ -1,10 +1,13 @@
 package EasyAppointment.appointmentscheduler.repositories;
 
+import EasyAppointment.appointmentscheduler.DTO.UserPrincipal;
 import EasyAppointment.appointmentscheduler.models.Role;
 import EasyAppointment.appointmentscheduler.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -36,4 +39,32 @@ public interface UserRepository extends JpaRepository<User, Long>{
      * @return true if a user exists that matches the specified email and business is not null, false otherwise.
      */
     boolean existsByEmailAndBusinessIsNotNull(String email);
-}
\ No newline at end of file
+
+    /**
+     * Finds the principal of a user by email, without loading the User entity and its associations.
+     * @param email The email of the user.
+     * @return An optional UserPrincipal, empty if no user has the email.
+     */
+    @Query("SELECT new EasyAppointment.appointmentscheduler.DTO.UserPrincipal(u.id, u.email, u.password, u.role, b.id) " +
+            "FROM User u LEFT JOIN u.business b WHERE u.email = :email")
+    Optional<UserPrincipal> findPrincipalByEmail(@Param("email") String email);
+
+    /**
+     * Finds the token version of a user.
+     * @param id The ID of the user.
+     * @return An optional token version, empty if the user does not exist.
+     */
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    /**
+     * Updates the password hash of a user.
+     * @param email The email of the user.
+     * @param password The new password hash.
+     * @return The number of updated users.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+}
@@ -0,0 +1,28 @@
+package EasyAppointment.appointmentscheduler.requestsAndResponses;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * This class represents a page of a keyset paginated listing.
+ * It contains the items of the page and the cursor of the next page, which is null on the last page.
+ * It uses Lombok annotations for automatic generation of getters and constructors.
+ *
+ * @param <T> The type of the items.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * The items of the page.
+     */
+    private List<T> items;
+
+    /**
+     * The cursor of the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+}
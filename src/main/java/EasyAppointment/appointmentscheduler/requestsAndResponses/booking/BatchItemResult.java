@@ -0,0 +1,37 @@
+package EasyAppointment.appointmentscheduler.requestsAndResponses.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * This class represents the result of one item of a batch request.
+ * It contains the index of the item in the request, whether it was processed successfully,
+ * a message describing the outcome and the ID of the booking it created or changed.
+ * It uses Lombok annotations for automatic generation of getters, setters and constructors.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    /**
+     * The index of the item in the request.
+     */
+    private int index;
+
+    /**
+     * Indicates whether the item was processed successfully.
+     */
+    private Boolean success;
+
+    /**
+     * Describes the outcome of the item.
+     */
+    private String message;
+
+    /**
+     * The ID of the booking created or changed by the item, or null if it failed.
+     */
+    private Long bookingId;
+}
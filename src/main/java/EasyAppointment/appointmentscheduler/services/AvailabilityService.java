@@ -0,0 +1,374 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import EasyAppointment.appointmentscheduler.DTO.AppointmentDTO;
+import EasyAppointment.appointmentscheduler.DTO.ScheduleRulesDTO;
+import EasyAppointment.appointmentscheduler.DTO.ServiceProviderStatsDTO;
+import EasyAppointment.appointmentscheduler.exception.AppointmentAlreadyBookedException;
+import EasyAppointment.appointmentscheduler.models.Appointment;
+import EasyAppointment.appointmentscheduler.models.Branch;
+import EasyAppointment.appointmentscheduler.models.ServiceProvider;
+import EasyAppointment.appointmentscheduler.repositories.AppointmentRepository;
+import EasyAppointment.appointmentscheduler.repositories.ServiceProviderRepository;
+import EasyAppointment.appointmentscheduler.util.BoundedCache;
+import EasyAppointment.appointmentscheduler.util.BreakTimes;
+import EasyAppointment.appointmentscheduler.util.ScheduleTemplate;
+import EasyAppointment.appointmentscheduler.util.SlotCalculator;
+import EasyAppointment.appointmentscheduler.util.VirtualSlotIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * This class provides the rule based availability engine.
+ * It derives the open slots of a service provider from its working days, break hours and session duration
+ * and from the opening and closing hours of its branch, instead of reading pre-generated Appointment rows.
+ * An Appointment row is only persisted when a slot is booked, and persisted rows always override the computed slots.
+ * It uses Spring's @Service annotation to indicate that it's a service class.
+ * It uses Lombok's @RequiredArgsConstructor to automatically generate a constructor with required fields.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityService {
+    private final AppointmentRepository appointmentRepository;
+    private final ServiceProviderRepository serviceProviderRepository;
+
+    // When disabled, the schedule is pre-generated as Appointment rows on service provider creation
+    @Value("${scheduling.virtual-slots:true}")
+    private boolean virtualSlots;
+
+    // How far ahead slots are offered, in months
+    @Value("${scheduling.horizon-months:3}")
+    private int horizonMonths;
+
+    // How far ahead the next available slot of a service provider is searched, in days
+    @Value("${scheduling.next-slot-lookahead-days:14}")
+    private int nextSlotLookaheadDays;
+
+    // The maximum number of cached schedule templates
+    @Value("${scheduling.template-cache.max-size:10000}")
+    private int templateCacheMaxSize;
+
+    // How long a schedule template is cached, in seconds
+    @Value("${scheduling.template-cache.ttl-seconds:3600}")
+    private long templateCacheTtlSeconds;
+
+    // The compiled schedule templates by service provider ID
+    private final BoundedCache<Long, ScheduleTemplate> templates = new BoundedCache<>(() -> templateCacheMaxSize);
+
+    /**
+     * This method checks if the virtual slots are enabled.
+     * @return A boolean indicating whether slots are computed from rules instead of pre-generated.
+     */
+    public boolean isVirtualSlotsEnabled() {
+        return virtualSlots;
+    }
+
+    /**
+     * This method returns the last date on which slots are offered.
+     * @return The scheduling horizon.
+     */
+    public LocalDate getSchedulingHorizon() {
+        return LocalDate.now().plusMonths(horizonMonths);
+    }
+
+    /**
+     * This method retrieves the slots of a service provider between two dates, inclusive.
+     * It computes the slots from the cached schedule template and overlays the persisted appointments on them,
+     * so booked slots keep their appointment ID and booking details.
+     * Once the template is cached, this costs a single statement regardless of the number of slots.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param serviceProviderId The ID of the service provider.
+     * @param from The first date.
+     * @param to The last date.
+     * @return A list of AppointmentDTO objects sorted by start time.
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentDTO> getAvailability(Long serviceProviderId, LocalDate from, LocalDate to) {
+        Map<LocalDateTime, AppointmentDTO> slots = new TreeMap<>();
+
+        if (virtualSlots) {
+            ScheduleTemplate template = getScheduleTemplate(serviceProviderId);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDate first = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+            LocalDate last = to.isAfter(getSchedulingHorizon()) ? getSchedulingHorizon() : to;
+
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                for (LocalDateTime start : computeDaySlots(template, date)) {
+                    if (!start.isBefore(now)) { // slots that already started today are not offered
+                        slots.put(start, toVirtualSlot(template, start));
+                    }
+                }
+            }
+        }
+
+        appointmentRepository.findSlotsByServiceProviderIdAndStartTimeBetween(serviceProviderId,
+                        from.atStartOfDay(),
+                        to.atTime(LocalTime.MAX))
+                .forEach(appointment -> slots.put(appointment.getStartTime(), appointment));
+
+        return new ArrayList<>(slots.values());
+    }
+
+    /**
+     * This method computes the next available slot and the number of upcoming booked appointments
+     * of several service providers with two statements, however many service providers and appointments there are.
+     * With virtual slots, the next available slot is the first computed slot that is not booked,
+     * searched within the lookahead window, so a service provider fully booked for the whole window has none.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param serviceProviders The loaded service providers, with their branches.
+     * @return A map of ServiceProviderStatsDTO objects by service provider ID, with an entry for every service provider.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ServiceProviderStatsDTO> getServiceProviderStats(Collection<ServiceProvider> serviceProviders) {
+        Map<Long, ServiceProviderStatsDTO> stats = new HashMap<>();
+        if (serviceProviders.isEmpty()) {
+            return stats;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = serviceProviders.stream().map(ServiceProvider::getId).toList();
+        appointmentRepository.findUpcomingStats(ids, now).forEach(stat -> stats.put(stat.getServiceProviderId(), stat));
+
+        Map<Long, Set<LocalDateTime>> booked = new HashMap<>();
+        LocalDate last = now.toLocalDate().plusDays(nextSlotLookaheadDays - 1L);
+        if (last.isAfter(getSchedulingHorizon())) {
+            last = getSchedulingHorizon();
+        }
+        if (virtualSlots) {
+            appointmentRepository.findBookedSlots(ids, now, last.atTime(LocalTime.MAX))
+                    .forEach(slot -> booked.computeIfAbsent(slot.getServiceProviderId(), id -> new HashSet<>()).add(slot.getStartTime()));
+        }
+
+        for (ServiceProvider serviceProvider : serviceProviders) {
+            ServiceProviderStatsDTO stat = stats.get(serviceProvider.getId());
+            LocalDateTime nextAvailableSlot = stat != null ? stat.getNextAvailableSlot() : null;
+            if (virtualSlots) {
+                // the loaded entity compiles the template without another query
+                ScheduleTemplate template = cachedTemplate(serviceProvider.getId(),
+                        () -> compileTemplate(serviceProvider, serviceProvider.getBranch()));
+                nextAvailableSlot = findFirstFreeSlot(template,
+                        booked.getOrDefault(serviceProvider.getId(), Set.of()), now, last);
+            }
+            stats.put(serviceProvider.getId(), new ServiceProviderStatsDTO(serviceProvider.getId(), nextAvailableSlot,
+                    stat != null ? stat.getUpcomingBookedCount() : 0L));
+        }
+        return stats;
+    }
+
+    /**
+     * This method turns a virtual slot into a persisted appointment so it can be booked.
+     * If an appointment already exists at the slot's start time, it is returned instead.
+     * It validates that the slot has not started yet, is within the scheduling horizon
+     * and matches the service provider's rules.
+     * @param virtualId The virtual slot ID.
+     * @return The persisted Appointment object.
+     * @throws NoSuchElementException if the slot does not exist.
+     * @throws AppointmentAlreadyBookedException if the slot was materialized concurrently.
+     */
+    @Transactional
+    public Appointment materializeSlot(long virtualId) {
+        long serviceProviderId = VirtualSlotIds.serviceProviderId(virtualId);
+        LocalDateTime startTime = VirtualSlotIds.startTime(virtualId);
+        if (startTime.isBefore(LocalDateTime.now())) {
+            throw new NoSuchElementException("No appointment found with id: " + virtualId);
+        }
+
+        Optional<Appointment> existing = appointmentRepository.findByServiceProviderIdAndStartTime(serviceProviderId, startTime);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        ScheduleTemplate template = getScheduleTemplate(serviceProviderId);
+        LocalDate date = startTime.toLocalDate();
+        if (date.isAfter(getSchedulingHorizon())
+                || !template.isWorkingDay(date)
+                || !template.getCalculator().isSlotStart(startTime.toLocalTime().toSecondOfDay() / 60)) {
+            throw new NoSuchElementException("No appointment found with id: " + virtualId);
+        }
+
+        int sessionDuration = template.getCalculator().getSessionDuration();
+        Appointment appointment = Appointment.builder()
+                .serviceProvider(serviceProviderRepository.getReferenceById(serviceProviderId))
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(sessionDuration))
+                .isAvailable(true)
+                .duration(sessionDuration)
+                .build();
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            throw new AppointmentAlreadyBookedException("One or more appointments are not available");
+        }
+    }
+
+    /**
+     * This method returns the compiled schedule template of a service provider.
+     * The template is read with a single projection query the first time and cached afterwards,
+     * since the schedule rules of a service provider and the opening hours of its branch do not change after creation.
+     * The cache is bounded by size and by a TTL, so templates of service providers that are no longer read
+     * or were deleted by another instance do not stay in memory.
+     * @param serviceProviderId The ID of the service provider.
+     * @return The ScheduleTemplate of the service provider.
+     * @throws NoSuchElementException if the service provider does not exist.
+     */
+    public ScheduleTemplate getScheduleTemplate(Long serviceProviderId) {
+        return cachedTemplate(serviceProviderId, () -> serviceProviderRepository.findScheduleRules(serviceProviderId)
+                .map(this::compileTemplate)
+                .orElseThrow(() -> new NoSuchElementException("Service Provider not found")));
+    }
+
+    /**
+     * This method removes the cached schedule template of a service provider now and again once the current
+     * transaction commits, so a request running before the commit cannot leave the old template in the cache.
+     * It must be called when the service provider is deleted or its schedule rules change.
+     * @param serviceProviderId The ID of the service provider.
+     */
+    public void evictScheduleTemplate(Long serviceProviderId) {
+        evictTemplate(serviceProviderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictTemplate(serviceProviderId);
+                }
+            });
+        }
+    }
+
+    /**
+     * This method returns a cached schedule template, compiling and caching it if it is not cached or has expired.
+     * @param serviceProviderId The ID of the service provider.
+     * @param compiler The function that compiles the template.
+     * @return The ScheduleTemplate of the service provider.
+     */
+    private ScheduleTemplate cachedTemplate(Long serviceProviderId, Supplier<ScheduleTemplate> compiler) {
+        long now = System.currentTimeMillis();
+        ScheduleTemplate template = templates.get(serviceProviderId);
+        if (template == null) {
+            // compiled outside of the lock, concurrent misses for the same service provider may both compile it
+            template = compiler.get();
+            templates.put(serviceProviderId, template, now + templateCacheTtlSeconds * 1000);
+        }
+        return template;
+    }
+
+    /**
+     * This method removes the cached schedule template of a service provider.
+     * @param serviceProviderId The ID of the service provider.
+     */
+    private void evictTemplate(Long serviceProviderId) {
+        templates.remove(serviceProviderId);
+    }
+
+    /**
+     * This method computes the start times of the slots of a service provider on a given date.
+     * It returns an empty list if the date is not one of the service provider's working days.
+     * Slots that would overlap a break are moved to the end of the break.
+     * @param serviceProvider The service provider.
+     * @param branch The branch of the service provider.
+     * @param date The date.
+     * @return A list of slot start times in ascending order.
+     */
+    public List<LocalDateTime> computeDaySlots(ServiceProvider serviceProvider, Branch branch, LocalDate date) {
+        return computeDaySlots(compileTemplate(serviceProvider, branch), date);
+    }
+
+    /**
+     * This method computes the start times of the slots of a service provider on a given date
+     * from its compiled schedule template, so a range of dates compiles the template only once.
+     * @param template The compiled schedule template of the service provider.
+     * @param date The date.
+     * @return A list of slot start times in ascending order.
+     */
+    public List<LocalDateTime> computeDaySlots(ScheduleTemplate template, LocalDate date) {
+        if (!template.isWorkingDay(date)) {
+            return new ArrayList<>();
+        }
+        SlotCalculator calculator = template.getCalculator();
+        LocalDateTime midnight = date.atStartOfDay();
+        List<LocalDateTime> slots = new ArrayList<>(calculator.getSlotCount());
+        for (int i = 0; i < calculator.getSlotCount(); i++) {
+            slots.add(midnight.plusMinutes(calculator.getStartMinute(i)));
+        }
+        return slots;
+    }
+
+    /**
+     * This method compiles the schedule template of a service provider.
+     * @param serviceProvider The service provider.
+     * @param branch The branch of the service provider.
+     * @return The compiled ScheduleTemplate.
+     */
+    public ScheduleTemplate compileTemplate(ServiceProvider serviceProvider, Branch branch) {
+        return new ScheduleTemplate(serviceProvider.getId(), serviceProvider.getWorkingDays(), SlotCalculator.compile(
+                branch.getOpeningHours().toSecondOfDay() / 60,
+                branch.getClosingHours().toSecondOfDay() / 60,
+                serviceProvider.getSessionDuration(),
+                serviceProvider.getBreakMinutes()));
+    }
+
+    /**
+     * This method compiles the schedule template of a service provider from its schedule rules.
+     * @param rules The schedule rules of the service provider.
+     * @return The compiled ScheduleTemplate.
+     */
+    private ScheduleTemplate compileTemplate(ScheduleRulesDTO rules) {
+        int[] breakMinutes = rules.getBreakMinutes() != null
+                ? rules.getBreakMinutes()
+                : BreakTimes.parseLegacy(rules.getBreakHour());
+        return new ScheduleTemplate(rules.getServiceProviderId(), rules.getWorkingDays(), SlotCalculator.compile(
+                rules.getOpeningHours().toSecondOfDay() / 60,
+                rules.getClosingHours().toSecondOfDay() / 60,
+                rules.getSessionDuration(),
+                breakMinutes));
+    }
+
+    /**
+     * This method finds the first computed slot of a service provider that starts after a given time and is not booked.
+     * @param template The schedule template of the service provider.
+     * @param booked The start times of the booked slots.
+     * @param now The time after which the slot must start.
+     * @param last The last date to search.
+     * @return The start time of the slot, or null if there is none until the last date.
+     */
+    private LocalDateTime findFirstFreeSlot(ScheduleTemplate template, Set<LocalDateTime> booked,
+                                            LocalDateTime now, LocalDate last) {
+        for (LocalDate date = now.toLocalDate(); !date.isAfter(last); date = date.plusDays(1)) {
+            for (LocalDateTime start : computeDaySlots(template, date)) {
+                if (start.isAfter(now) && !booked.contains(start)) {
+                    return start;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method builds the AppointmentDTO of a slot that has no Appointment row.
+     * @param template The schedule template of the service provider.
+     * @param start The start time of the slot.
+     * @return The AppointmentDTO object with a virtual slot ID.
+     */
+    private AppointmentDTO toVirtualSlot(ScheduleTemplate template, LocalDateTime start) {
+        int sessionDuration = template.getCalculator().getSessionDuration();
+        return new AppointmentDTO(
+                VirtualSlotIds.encode(template.getServiceProviderId(), start),
+                start,
+                start.plusMinutes(sessionDuration),
+                sessionDuration,
+                true,
+                null,
+                template.getServiceProviderId(),
+                null,
+                null);
+    }
+}
@@ -0,0 +1,54 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import org.springframework.core.io.Resource;
+
+import java.util.Optional;
+
+/**
+ * This interface represents a content addressed store of binary objects, such as images.
+ * Each object is identified by the SHA-256 hash of its content, so storing the same content twice stores it once
+ * and a stored object never changes, which lets clients cache it forever.
+ */
+public interface BlobStore {
+
+    /**
+     * This method stores an object.
+     * @param data The content of the object.
+     * @return The hash of the object, as 64 lowercase hexadecimal characters.
+     */
+    String put(byte[] data);
+
+    /**
+     * This method checks if an object is stored.
+     * @param hash The hash of the object.
+     * @return A boolean indicating whether the object is stored.
+     */
+    boolean exists(String hash);
+
+    /**
+     * This method returns a stored object as a resource that can be streamed.
+     * @param hash The hash of the object.
+     * @return An optional Resource, empty if the object is not stored.
+     * @throws IllegalArgumentException if the hash is not a valid hash.
+     */
+    Optional<Resource> get(String hash);
+
+    /**
+     * This method stores a variant of an object, such as a resized image, next to the object.
+     * A variant is derived from the object's content, so storing it again replaces it with the same content.
+     * @param hash The hash of the object.
+     * @param variant The name of the variant.
+     * @param data The content of the variant.
+     * @throws IllegalArgumentException if the hash or the variant name is not valid.
+     */
+    void putVariant(String hash, String variant, byte[] data);
+
+    /**
+     * This method returns a stored variant of an object as a resource that can be streamed.
+     * @param hash The hash of the object.
+     * @param variant The name of the variant.
+     * @return An optional Resource, empty if the variant is not stored.
+     * @throws IllegalArgumentException if the hash or the variant name is not valid.
+     */
+    Optional<Resource> getVariant(String hash, String variant);
+}
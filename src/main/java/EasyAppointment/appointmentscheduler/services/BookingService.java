@@ -1,12 +1,18 @@
 package EasyAppointment.appointmentscheduler.services;
 
+import EasyAppointment.appointmentscheduler.DTO.AppointmentBookingDTO;
 import EasyAppointment.appointmentscheduler.DTO.AppointmentDTO;
+import EasyAppointment.appointmentscheduler.DTO.BookingBatchDTO;
 import EasyAppointment.appointmentscheduler.DTO.BookingDTO;
+import EasyAppointment.appointmentscheduler.DTO.CancellationBatchDTO;
+import EasyAppointment.appointmentscheduler.DTO.SlotHoldDTO;
 import EasyAppointment.appointmentscheduler.DTO.UserDTO;
+import EasyAppointment.appointmentscheduler.DTO.UserPrincipal;
 import EasyAppointment.appointmentscheduler.auth.AuthHelper;
 import EasyAppointment.appointmentscheduler.exception.AppointmentAlreadyBookedException;
 import EasyAppointment.appointmentscheduler.models.Appointment;
 import EasyAppointment.appointmentscheduler.models.Booking;
+import EasyAppointment.appointmentscheduler.models.BookingStatus;
 import EasyAppointment.appointmentscheduler.models.User;
 import EasyAppointment.appointmentscheduler.repositories.AppointmentRepository;
 import EasyAppointment.appointmentscheduler.repositories.BookingRepository;
@@ -14,10 +20,16 @@ import EasyAppointment.appointmentscheduler.repositories.ServiceProviderReposito
 import EasyAppointment.appointmentscheduler.repositories.UserRepository;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiRequest;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.CursorPage;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.booking.BatchItemResult;
+import EasyAppointment.appointmentscheduler.util.KeysetCursor;
+import EasyAppointment.appointmentscheduler.util.VirtualSlotIds;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -33,50 +45,328 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class BookingService {
+    // The statuses a booking can be in for its appointments to be released, or for it to be cancelled
+    private static final Set<BookingStatus> RELEASABLE = BookingStatus.sourcesOf(BookingStatus.PARTIALLY_CANCELLED, BookingStatus.CANCELLED);
+    private static final Set<BookingStatus> CANCELLABLE = BookingStatus.sourcesOf(BookingStatus.CANCELLED);
+
     private final AppointmentRepository appointmentRepository;
     private final BookingRepository bookingRepository;
     private final ServiceProviderRepository serviceProviderRepository;
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AvailabilityService availabilityService;
+    private final SlotReservationGate reservationGate;
+    private final SlotHoldService slotHoldService;
+    private final TransactionTemplate transactionTemplate;
+
+    // The maximum number of items in a batch request
+    @Value("${booking.batch.max-size:200}")
+    private int maxBatchSize;
+
+    // The maximum number of appointments in a page of the user's bookings
+    @Value("${booking.page.max-size:100}")
+    private int maxPageSize;
 
 
     /**
      * This method creates a new booking.
-     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * The requested appointments are first reserved in the in-memory reservation layer, so contenders for the same
+     * appointments are rejected before they open a transaction, and the booking is then made in its own transaction.
      * @param request The request containing the booking data.
      * @return An ApiResponse object containing the result of the operation.
      */
-    @Transactional
     public ApiResponse<BookingDTO> createNewBooking(ApiRequest<BookingDTO> request) {
-        Set<Appointment> appointments = new HashSet<>(appointmentRepository.findAllById(request.getData().getAppointmentsIds()));
+        Set<Long> requestedIds = request.getData().getAppointmentsIds();
+        checkAppointmentIds(requestedIds);
+        reservationGate.reserve(requestedIds);
+        return bookReserved(requestedIds, request);
+    }
 
-        User user = userRepository.findByEmail(AuthHelper.getCaller())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    /**
+     * This method holds appointments for the currently authenticated user during checkout.
+     * @param request The request containing the IDs of the appointments to hold.
+     * @return An ApiResponse object containing the result of the operation.
+     */
+    public ApiResponse<SlotHoldDTO> holdAppointments(ApiRequest<BookingDTO> request) {
+        checkAppointmentIds(request.getData().getAppointmentsIds());
+        SlotHoldDTO hold = slotHoldService.hold(request.getData().getAppointmentsIds(), AuthHelper.getCaller());
+        return new ApiResponse<>(true, "Appointments held successfully", hold);
+    }
+
+    /**
+     * This method confirms a hold of the currently authenticated user into a booking of the held appointments.
+     * @param holdId The ID of the hold.
+     * @param request The request containing the booking data, its appointment IDs are replaced by the held ones.
+     * @return An ApiResponse object containing the result of the operation.
+     */
+    public ApiResponse<BookingDTO> confirmHold(String holdId, ApiRequest<BookingDTO> request) {
+        Set<Long> heldIds = slotHoldService.take(holdId, AuthHelper.getCaller());
+        request.getData().setAppointmentsIds(heldIds);
+        return bookReserved(heldIds, request);
+    }
+
+    /**
+     * This method releases a hold of the currently authenticated user.
+     * @param holdId The ID of the hold.
+     * @return An ApiResponse object containing the result of the operation.
+     */
+    public ApiResponse<String> releaseHold(String holdId) {
+        slotHoldService.release(holdId, AuthHelper.getCaller());
+        return new ApiResponse<>(true, "Hold released successfully", holdId);
+    }
+
+    /**
+     * This method books appointments that are already reserved in the reservation layer, in its own transaction,
+     * and then releases the reservation.
+     * @param reservedIds The reserved appointment IDs.
+     * @param request The request containing the booking data.
+     * @return An ApiResponse object containing the result of the operation.
+     */
+    private ApiResponse<BookingDTO> bookReserved(Set<Long> reservedIds, ApiRequest<BookingDTO> request) {
+        boolean booked = false;
+        try {
+            ApiResponse<BookingDTO> response = transactionTemplate.execute(status -> bookAppointments(request));
+            booked = true;
+            return response;
+        } finally {
+            reservationGate.release(reservedIds, booked);
+        }
+    }
+
+    /**
+     * This method books the requested appointments.
+     * Virtual slot IDs in the request are materialized into Appointment rows before they are booked.
+     * The appointments are claimed with a single conditional update, and if any of them is not available anymore
+     * the whole booking is rolled back, without reading and locking the appointments first.
+     * It must be called within a transaction.
+     * @param request The request containing the booking data.
+     * @return An ApiResponse object containing the result of the operation.
+     */
+    private ApiResponse<BookingDTO> bookAppointments(ApiRequest<BookingDTO> request) {
+        Set<Long> appointmentIds = resolveAppointmentIds(request.getData().getAppointmentsIds());
+        if (appointmentIds.isEmpty()) {
+            throw new NoSuchElementException("No appointments found with the given ids");
+        }
+
+        UserPrincipal caller = userPrincipalCache.get(AuthHelper.getCaller());
 
-        // Building the Booking object with initialized appointments
         Booking booking = Booking.builder()
                 .bookingTime(request.getData().getBookingTime())
                 .serviceProvider(serviceProviderRepository.getReferenceById(request.getData().getServiceProviderId()))
-                .user(user)
+                .user(userRepository.getReferenceById(caller.getId()))
                 .appointments(new HashSet<>())
+                .status(BookingStatus.CONFIRMED)
                 .build();
+        booking = bookingRepository.save(booking);
 
-        if (appointments.isEmpty()) {
-            throw new NoSuchElementException("No appointments found with the given ids");
+        if (appointmentRepository.claimAppointments(appointmentIds, booking) != appointmentIds.size()) {
+            throw new AppointmentAlreadyBookedException("One or more appointments are not available");
         }
 
-        for (Appointment appointment : appointments) {
-            if (!appointment.isAvailable()) {
-                throw new AppointmentAlreadyBookedException("One or more appointments are not available");
+        return new ApiResponse<>(true, "Booking created successfully", new BookingDTO(
+                booking.getBookingId(),
+                booking.getBookingTime(),
+                booking.getStatus().getLabel(),
+                appointmentIds,
+                caller.getId(),
+                request.getData().getServiceProviderId()));
+    }
+
+    /**
+     * This method resolves the IDs of the appointments to book.
+     * Virtual slots are materialized into Appointment rows, and IDs that do not exist are dropped.
+     * @param appointmentIds The IDs of the appointments, persisted or virtual.
+     * @return A set of persisted appointment IDs.
+     */
+    private Set<Long> resolveAppointmentIds(Set<Long> appointmentIds) {
+        Set<Long> persistedIds = new HashSet<>();
+        Set<Long> resolvedIds = new HashSet<>();
+        for (Long id : appointmentIds) {
+            if (VirtualSlotIds.isVirtual(id)) {
+                resolvedIds.add(availabilityService.materializeSlot(id).getId());
+            } else {
+                persistedIds.add(id);
             }
-            appointment.setAvailable(false);
-            booking.addAppointment(appointment);
         }
+        appointmentRepository.findAllById(persistedIds).forEach(appointment -> resolvedIds.add(appointment.getId()));
+        return resolvedIds;
+    }
 
-        booking.setStatus("Confirmed");
-        booking = bookingRepository.save(booking);
-        appointmentRepository.saveAll(appointments); // Saving state changes to appointments
+    /**
+     * This method creates a batch of bookings for the currently authenticated user.
+     * Each booking is reserved in the reservation layer and its virtual slots are materialized first,
+     * then all the bookings are inserted and claimed in a single transaction, one conditional update per booking.
+     * An invalid booking, or one whose appointments cannot all be claimed, fails without failing the others.
+     * @param request The request containing the bookings.
+     * @return An ApiResponse object containing the result of each booking, in request order.
+     */
+    public ApiResponse<List<BatchItemResult>> createBookings(ApiRequest<BookingBatchDTO> request) {
+        List<BookingDTO> items = request.getData().getBookings();
+        checkBatchSize(items.size());
+        UserPrincipal caller = userPrincipalCache.get(AuthHelper.getCaller());
+
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        Map<Integer, Set<Long>> reserved = new LinkedHashMap<>();
+        Map<Integer, Set<Long>> resolved = new LinkedHashMap<>();
+        Set<Integer> booked = new HashSet<>();
+        try { // everything reserved is released in the finally block, whatever fails
+            for (int i = 0; i < items.size(); i++) {
+                BookingDTO item = items.get(i);
+                Set<Long> appointmentIds = item != null ? item.getAppointmentsIds() : null;
+                try {
+                    if (item == null || item.getServiceProviderId() == null) {
+                        throw new IllegalArgumentException("Service provider ID is required");
+                    }
+                    checkAppointmentIds(appointmentIds);
+                    reservationGate.reserve(appointmentIds);
+                    reserved.put(i, appointmentIds);
+                    resolved.put(i, materializeVirtualIds(appointmentIds));
+                } catch (AppointmentAlreadyBookedException | NoSuchElementException | IllegalArgumentException e) {
+                    results[i] = new BatchItemResult(i, false, e.getMessage(), null);
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Integer, Booking> bookings = new LinkedHashMap<>();
+                User user = userRepository.getReferenceById(caller.getId());
+                resolved.forEach((i, appointmentIds) -> bookings.put(i, Booking.builder()
+                        .bookingTime(items.get(i).getBookingTime())
+                        .serviceProvider(serviceProviderRepository.getReferenceById(items.get(i).getServiceProviderId()))
+                        .user(user)
+                        .appointments(new HashSet<>())
+                        .status(BookingStatus.CONFIRMED)
+                        .build()));
+                bookingRepository.persistAll(bookings.values());
 
-        return new ApiResponse<>(true, "Booking created successfully", new BookingDTO(booking));
+                List<Booking> failed = new ArrayList<>();
+                bookings.forEach((i, booking) -> {
+                    if (appointmentRepository.claimAppointments(resolved.get(i), booking) == resolved.get(i).size()) {
+                        results[i] = new BatchItemResult(i, true, "Booking created successfully", booking.getBookingId());
+                        booked.add(i);
+                    } else {
+                        results[i] = new BatchItemResult(i, false, "One or more appointments are not available", null);
+                        failed.add(booking);
+                    }
+                });
+                if (!failed.isEmpty()) { // undo the partial claims of the failed bookings
+                    appointmentRepository.releaseAppointmentsOfBookings(failed);
+                    bookingRepository.deleteAllInBatch(failed);
+                }
+            });
+        } catch (RuntimeException e) {
+            booked.clear();
+            throw e;
+        } finally {
+            reserved.forEach((i, appointmentIds) -> reservationGate.release(appointmentIds, booked.contains(i)));
+        }
+
+        return new ApiResponse<>(true, booked.size() + " of " + items.size() + " bookings created", Arrays.asList(results));
+    }
+
+    /**
+     * This method cancels a batch of booked appointments.
+     * Each appointment must belong to a booking of the currently authenticated user,
+     * or to a booking of a service provider of the user's business.
+     * The appointments are released and the status of their bookings is updated with one statement each,
+     * whatever the number of appointments, so a booking left without appointments is cancelled
+     * and the others are partially cancelled.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param request The request containing the IDs of the appointments to cancel.
+     * @return An ApiResponse object containing the result of each appointment, in request order.
+     */
+    @Transactional
+    public ApiResponse<List<BatchItemResult>> cancelAppointments(ApiRequest<CancellationBatchDTO> request) {
+        List<Long> appointmentIds = request.getData().getAppointmentsIds();
+        checkBatchSize(appointmentIds.size());
+        String caller = AuthHelper.getCaller();
+
+        Map<Long, AppointmentBookingDTO> bookingsByAppointment = new HashMap<>();
+        appointmentRepository.findBookingsOfAppointments(appointmentIds)
+                .forEach(row -> bookingsByAppointment.put(row.getAppointmentId(), row));
+        Set<Long> otherUsersBookingIds = bookingsByAppointment.values().stream()
+                .filter(row -> !row.getUserEmail().equals(caller))
+                .map(AppointmentBookingDTO::getBookingId)
+                .collect(Collectors.toSet());
+        Set<Long> managedBookingIds = otherUsersBookingIds.isEmpty()
+                ? Set.of()
+                : bookingRepository.findBookingIdsManagedBy(otherUsersBookingIds, caller);
+
+        BatchItemResult[] results = new BatchItemResult[appointmentIds.size()];
+        Map<Long, Long> cancellable = new HashMap<>(); // appointment ID to booking ID
+        for (int i = 0; i < appointmentIds.size(); i++) {
+            AppointmentBookingDTO row = bookingsByAppointment.get(appointmentIds.get(i));
+            if (row == null) {
+                results[i] = new BatchItemResult(i, false, "Appointment not found or not booked", null);
+            } else if (!row.getUserEmail().equals(caller) && !managedBookingIds.contains(row.getBookingId())) {
+                results[i] = new BatchItemResult(i, false, "User not authorized", row.getBookingId());
+            } else if (!RELEASABLE.contains(row.getStatus())) {
+                results[i] = new BatchItemResult(i, false, "Booking is already cancelled or not in a cancellable state.", row.getBookingId());
+            } else {
+                cancellable.put(row.getAppointmentId(), row.getBookingId());
+            }
+        }
+
+        Set<Long> releasedIds = new HashSet<>();
+        if (!cancellable.isEmpty()) {
+            int released = appointmentRepository.releaseAppointments(cancellable.keySet(), new HashSet<>(cancellable.values()));
+            if (released == cancellable.size()) {
+                releasedIds.addAll(cancellable.keySet());
+            } else { // some appointments were changed concurrently, find out which were released
+                releasedIds.addAll(appointmentRepository.findUnbookedIds(cancellable.keySet()));
+            }
+            bookingRepository.updateStatusAfterCancellation(new HashSet<>(cancellable.values()), RELEASABLE);
+            reservationGate.forget(releasedIds);
+        }
+
+        for (int i = 0; i < appointmentIds.size(); i++) {
+            Long bookingId = cancellable.get(appointmentIds.get(i));
+            if (results[i] == null) {
+                results[i] = releasedIds.contains(appointmentIds.get(i))
+                        ? new BatchItemResult(i, true, "Appointment cancelled successfully", bookingId)
+                        : new BatchItemResult(i, false, "Appointment was changed concurrently", bookingId);
+            }
+        }
+        return new ApiResponse<>(true, releasedIds.size() + " of " + appointmentIds.size() + " appointments cancelled",
+                Arrays.asList(results));
+    }
+
+    /**
+     * This method replaces the virtual slot IDs among appointment IDs by the IDs of their materialized appointments.
+     * Each virtual slot is materialized in its own transaction.
+     * @param appointmentIds The IDs of the appointments, persisted or virtual.
+     * @return A set of persisted appointment IDs.
+     */
+    private Set<Long> materializeVirtualIds(Set<Long> appointmentIds) {
+        Set<Long> persistedIds = new HashSet<>();
+        for (Long id : appointmentIds) {
+            persistedIds.add(VirtualSlotIds.isVirtual(id) ? availabilityService.materializeSlot(id).getId() : id);
+        }
+        return persistedIds;
+    }
+
+    /**
+     * This method checks the appointment IDs of a request before they reach the reservation layer.
+     * @param appointmentIds The IDs of the appointments.
+     * @throws IllegalArgumentException if there are no IDs or one of them is null.
+     */
+    private void checkAppointmentIds(Set<Long> appointmentIds) {
+        if (appointmentIds == null || appointmentIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one appointment ID is required");
+        }
+        if (appointmentIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Appointment IDs must not be null");
+        }
+    }
+
+    /**
+     * This method checks the size of a batch request.
+     * @param size The number of items in the batch.
+     * @throws IllegalArgumentException if the batch is empty or larger than the configured maximum.
+     */
+    private void checkBatchSize(int size) {
+        if (size == 0 || size > maxBatchSize) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + maxBatchSize + " items");
+        }
     }
 
     /**
@@ -88,26 +378,21 @@ public class BookingService {
 
     @Transactional(readOnly = true)
     public ApiResponse<List<AppointmentDTO>> getAllUserBookedAppointments(boolean pastBookings) {
-        User user = userRepository.findByEmail(AuthHelper.getCaller())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found")); //authenticate user so only owned bookings are fetched
-
-        Set<Appointment> appointments = bookingRepository.findByUserId(user.getId()) // Fetch bookings by user's booking IDs
-                .stream() // Convert the List to a Stream for further processing
-                // or confirmed or Partially Cancelled
-                .filter(booking -> "Confirmed".equals(booking.getStatus()) || "Partially Cancelled".equals(booking.getStatus()))
-                .flatMap(booking -> booking.getAppointments().stream())
-                .collect(Collectors.toSet());
+        UserPrincipal caller = userPrincipalCache.get(AuthHelper.getCaller()); //authenticate user so only owned bookings are fetched
 
-        List<AppointmentDTO> appointmentDTOs = new ArrayList<>(appointments.stream()
-                .map(AppointmentDTO::new)
-                .toList());
-        appointmentDTOs.removeIf(appointmentDto -> pastBookings && appointmentDto.getEndTime().isBefore(LocalDateTime.now()));
+        // the status and end time are filtered in the query instead of loading every booking of the user
+        LocalDateTime endAfter = pastBookings ? LocalDateTime.now() : LocalDate.EPOCH.atStartOfDay();
+        List<AppointmentDTO> appointmentDTOs = appointmentRepository.findBookedAppointmentsOfUserEndingAfter(
+                caller.getId(), BookingStatus.ACTIVE, endAfter);
 
         return new ApiResponse<>(true, "Booked appointments fetched successfully", appointmentDTOs);
     }
 
     /**
      * This method cancels a booking.
+     * It cancels the whole booking of the given appointment with a conditional status update,
+     * then releases all its appointments with a single statement, so it costs the same number of queries
+     * whatever the size of the booking and only one of concurrent cancellations succeeds.
      * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
      * @param appointmentId The ID of the appointment to cancel.
      * @return An ApiResponse object containing the result of the operation.
@@ -115,23 +400,19 @@ public class BookingService {
 
     @Transactional
     public ApiResponse<BookingDTO> cancelBooking(long appointmentId) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        BookingDTO booking = bookingRepository.findBookingOfAppointment(appointmentId)
                 .orElseThrow(() -> new NoSuchElementException("Appointment not found with ID: " + appointmentId));
 
-        Booking booking = appointment.getBooking();
-
-        if ("Confirmed".equals(booking.getStatus())) {
-            booking.setStatus("Cancelled");
-            for (Appointment appt : booking.getAppointments()) {
-                appt.setAvailable(true);
-                booking.removeAppointment(appt);
-            }
-            bookingRepository.save(booking);
-            appointmentRepository.saveAll(booking.getAppointments());
-            return new ApiResponse<>(true, "Booking cancelled successfully", new BookingDTO(booking));
-        } else {
+        if (bookingRepository.cancelBooking(booking.getBookingId(), CANCELLABLE) == 0) {
             throw new IllegalStateException("Booking is already cancelled or not in a cancellable state.");
         }
+
+        List<Long> releasedIds = appointmentRepository.findIdsByBookingId(booking.getBookingId());
+        appointmentRepository.releaseAppointmentsOfBooking(booking.getBookingId());
+        reservationGate.forget(releasedIds);
+
+        booking.setStatus(BookingStatus.CANCELLED.getLabel());
+        return new ApiResponse<>(true, "Booking cancelled successfully", booking);
     }
 
 
@@ -168,24 +449,42 @@ public class BookingService {
         return new ApiResponse<>(true, "User found", new UserDTO(user));
     }
 
+    /**
+     * This method retrieves a page of the booked appointments of the currently authenticated user within a date range.
+     * The user, the booking status and the time range are filtered in the query and the page starts after the cursor,
+     * so the cost of a page does not grow with the user's booking history.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param start The first date of the range.
+     * @param end The last date of the range.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size The maximum number of appointments in the page.
+     * @return A CursorPage of AppointmentDTO objects sorted by start time.
+     * @throws NoSuchElementException if the user has no bookings at all.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
     @Transactional(readOnly = true)
-public List<AppointmentDTO> getMyBookings(LocalDate start, LocalDate end) {
-    User user = userRepository.findByEmail(AuthHelper.getCaller())
-            .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public CursorPage<AppointmentDTO> getMyBookings(LocalDate start, LocalDate end, String cursor, int size) {
+        UserPrincipal caller = userPrincipalCache.get(AuthHelper.getCaller());
 
-    List<Booking> bookings = bookingRepository.findByUserId(user.getId());
-    if (bookings.isEmpty()) {
-        throw new NoSuchElementException("No bookings found");
-    }
+        LocalDateTime from = start.atStartOfDay();
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : new KeysetCursor(from.minusSeconds(1), 0L);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
 
-    List<Appointment> appointments = bookings.stream()
-            .flatMap(booking -> booking.getAppointments().stream())
-            .filter(appointment ->
-                !appointment.getStartTime().toLocalDate().isBefore(start) &&
-                !appointment.getEndTime().toLocalDate().isAfter(end))
-            .sorted(Comparator.comparing(Appointment::getStartTime))
-            .collect(Collectors.toList());
+        // one extra row tells whether there is a next page
+        List<AppointmentDTO> appointments = new ArrayList<>(appointmentRepository.findBookedAppointmentsOfUser(
+                caller.getId(), BookingStatus.ACTIVE, from, end.plusDays(1).atStartOfDay(),
+                after.getStartTime(), after.getId(), PageRequest.of(0, pageSize + 1)));
 
-    return appointments.stream().map(AppointmentDTO::new).collect(Collectors.toList());
-}
+        if (appointments.isEmpty() && cursor == null && !bookingRepository.existsByUserId(caller.getId())) {
+            throw new NoSuchElementException("No bookings found");
+        }
+
+        String nextCursor = null;
+        if (appointments.size() > pageSize) {
+            appointments.remove(pageSize);
+            AppointmentDTO last = appointments.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getStartTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(appointments, nextCursor);
+    }
 }
@@ -5,20 +5,19 @@ import EasyAppointment.appointmentscheduler.exception.UserAlreadyOwnException;
 import EasyAppointment.appointmentscheduler.models.Branch;
 import EasyAppointment.appointmentscheduler.models.Business;
 import EasyAppointment.appointmentscheduler.models.ServiceProvider;
-import EasyAppointment.appointmentscheduler.models.User;
 import EasyAppointment.appointmentscheduler.repositories.BranchRepository;
 import EasyAppointment.appointmentscheduler.repositories.BusinessRepository;
 import EasyAppointment.appointmentscheduler.repositories.ServiceProviderRepository;
-import EasyAppointment.appointmentscheduler.repositories.UserRepository;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiRequest;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
+import EasyAppointment.appointmentscheduler.util.HttpCaching;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -29,10 +28,11 @@ import java.util.Set;
 @Service
 @RequiredArgsConstructor
 public class BranchService {
-    private final UserRepository userRepository;
     private final BusinessRepository businessRepository;
     private final BranchRepository branchRepository;
     private final ServiceProviderRepository serviceProviderRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final ImageService imageService;
 
 
     /**
@@ -46,10 +46,9 @@ public class BranchService {
     @Transactional(readOnly = false)
     public ApiResponse<BranchDTO> addBranch(ApiRequest<BranchDTO> request, String userEmail) throws RuntimeException {
 
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userEmail));
-
-        Business business = businessRepository.findByUsersContains(user)
+        Long businessId = userPrincipalCache.get(userEmail).getBusinessId();
+        Business business = Optional.ofNullable(businessId)
+                .flatMap(businessRepository::findById)
                 .orElseThrow(() -> new RuntimeException("Business not found for user: " + userEmail));
 
         Set<ServiceProvider> serviceProviders = new HashSet<>();
@@ -68,7 +67,7 @@ public class BranchService {
                 .business(business)
                 .openingHours(request.getData().getOpeningHours())
                 .closingHours(request.getData().getClosingHours())
-                .branchImage(request.getData().getBranchImage())
+                .branchImageHash(request.getData().getBranchImage() != null ? imageService.store(request.getData().getBranchImage()) : null)
                 .serviceProviders(serviceProviders)
                 .build();
         business.getBranches().add(newBranch);
@@ -98,6 +97,24 @@ public class BranchService {
     }
 
 
+    /**
+     * This method computes the ETag of the branches of a business with two aggregate queries.
+     * It changes when a branch is added, removed or updated, and when a service provider is added or removed.
+     * The business is checked first, so an unknown business gets no ETag instead of the ETag of an empty list.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param businessId The ID of the business.
+     * @return An optional ETag of the branches of the business, empty if the business does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getBranchesETag(long businessId) {
+        if (!businessRepository.existsById(businessId)) {
+            return Optional.empty();
+        }
+        return Optional.of(HttpCaching.eTag("branches-" + businessId,
+                branchRepository.findCatalogVersionByBusinessId(businessId),
+                serviceProviderRepository.findCatalogVersionByBusinessId(businessId)));
+    }
+
     /**
      * This method retrieves the ID of a specific branch for a specific business.
      * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
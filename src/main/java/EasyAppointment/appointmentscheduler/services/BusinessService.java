@@ -11,6 +11,7 @@ import EasyAppointment.appointmentscheduler.models.User;
 import EasyAppointment.appointmentscheduler.repositories.BusinessRepository;
 import EasyAppointment.appointmentscheduler.repositories.CategoryRepository;
 import EasyAppointment.appointmentscheduler.repositories.UserRepository;
+import EasyAppointment.appointmentscheduler.util.HttpCaching;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -33,6 +34,8 @@ public class BusinessService {
     private final UserRepository userRepository;
     private final UserService userService;
     private final BusinessRepository businessRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final ImageService imageService;
 
 
     /**
@@ -76,15 +79,16 @@ public class BusinessService {
                 .name(request.getData().getName())
                 .businessCategories(categories)
                 .users(new HashSet<>(Collections.singletonList(user))) // Associate the user with the new business
-                .logoImage(request.getData().getLogoImage())
+                .logoImageHash(request.getData().getLogoImage() != null ? imageService.store(request.getData().getLogoImage()) : null)
                 .build();
 
         Business savedBusiness = businessRepository.save(newBusiness);
         userService.updateUserRole(userEmail, Role.ADMIN);
         user.setBusiness(newBusiness);
         userRepository.save(user);
+        userPrincipalCache.evictAfterCommit(userEmail);
 
-        BusinessDTO businessDTO = new BusinessDTO(savedBusiness.getId(),savedBusiness.getName(), savedBusiness.getBusinessCategories());
+        BusinessDTO businessDTO = new BusinessDTO(savedBusiness.getId(),savedBusiness.getName(), savedBusiness.getBusinessCategories(), savedBusiness.getLogoImageHash());
         return new ApiResponse<>(true, "Business created successfully", businessDTO);
     }
 
@@ -97,14 +101,11 @@ public class BusinessService {
      */
     @Transactional(readOnly = true)
     public ApiResponse<BusinessDTO> getBusinessByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
-
-        Business business = user.getBusiness();
-        if (business == null) {
+        Long businessId = userPrincipalCache.get(email).getBusinessId();
+        if (businessId == null) {
             throw new NoSuchElementException("Business not found");
         }
-        return new ApiResponse<>(true, "Business found", new BusinessDTO(business));
+        return new ApiResponse<>(true, "Business found", new BusinessDTO(findById(businessId)));
     }
 
     /**
@@ -129,10 +130,8 @@ public class BusinessService {
 
         String authenticatedUserEmail = AuthHelper.getCaller();
 
-        User user = userRepository.findByEmail(authenticatedUserEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + authenticatedUserEmail));
-
-        Optional<Business> business = businessRepository.findByUsersContains(user);
+        Long businessId = userPrincipalCache.get(authenticatedUserEmail).getBusinessId();
+        Optional<Business> business = businessId == null ? Optional.empty() : businessRepository.findById(businessId);
 
 
 
@@ -154,4 +153,16 @@ public class BusinessService {
         Business business = findById(id);
         return new ApiResponse<>(true, "Business found", new BusinessDTO(business));
     }
+
+    /**
+     * This method computes the ETag of a business from its version, without loading the business.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param id The ID of the business.
+     * @return An optional ETag, empty if the business does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getBusinessETag(Long id) {
+        return businessRepository.findVersionById(id)
+                .map(version -> HttpCaching.eTag("business", id, version));
+    }
 }
@@ -3,6 +3,7 @@ package EasyAppointment.appointmentscheduler.services;
 import EasyAppointment.appointmentscheduler.DTO.CategoryDto;
 import EasyAppointment.appointmentscheduler.models.Category;
 import EasyAppointment.appointmentscheduler.repositories.CategoryRepository;
+import EasyAppointment.appointmentscheduler.util.HttpCaching;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +30,19 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * This method computes the ETag of the list of all categories with two aggregate queries.
+     * It changes when a category is added and when a business joins or leaves a category.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @return The ETag of the list of all categories.
+     */
+    @Transactional(readOnly = true)
+    public String getAllCategoriesETag() {
+        return HttpCaching.eTag("categories",
+                categoryRepository.findCatalogVersion(),
+                categoryRepository.findBusinessLinksVersion());
+    }
+
     /**
      * This method initializes categories.
      * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
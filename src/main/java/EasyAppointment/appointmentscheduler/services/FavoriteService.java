@@ -10,7 +10,6 @@ import EasyAppointment.appointmentscheduler.repositories.FavoriteRepository;
 import EasyAppointment.appointmentscheduler.repositories.UserRepository;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +29,7 @@ import java.util.stream.Collectors;
 public class FavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
     private final BusinessRepository businessRepository;
 
     /**
@@ -41,8 +41,7 @@ public class FavoriteService {
     public ApiResponse<List<FavoriteDTO>> getFavoritesForAuthenticatedUser() {
         String authenticatedUserEmail = AuthHelper.getCaller();
 
-        User user = userRepository.findByEmail(authenticatedUserEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + authenticatedUserEmail));
+        User user = userRepository.getReferenceById(userPrincipalCache.get(authenticatedUserEmail).getId());
 
         List<Favorite> fullList = favoriteRepository.findByUser(user);
         List<FavoriteDTO> favoriteDTOs;
@@ -73,8 +72,7 @@ public class FavoriteService {
      */
     @Transactional
     public ApiResponse<FavoriteDTO> addFavorite(long id, String userEmail) throws RuntimeException {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userEmail));
+        User user = userRepository.getReferenceById(userPrincipalCache.get(userEmail).getId());
         Business business = businessRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Business not found with id: " + id)
 );
@@ -87,9 +85,7 @@ public class FavoriteService {
                     .user(user)
                     .business(business)
                     .build();
-            Favorite savedFavorite = favoriteRepository.save(newFavorite);
-            user.setFavorite(savedFavorite);
-            userRepository.save(user);
+            Favorite savedFavorite = favoriteRepository.save(newFavorite); // the favorite owns the association, the user is not loaded
             FavoriteDTO favoriteDTO = new FavoriteDTO(savedFavorite.getId(), savedFavorite.getUser().getId(), savedFavorite.getBusiness().getId());
             return new ApiResponse<>(true, "Favorite added", favoriteDTO);
         }
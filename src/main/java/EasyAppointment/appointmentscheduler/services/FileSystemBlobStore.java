@@ -0,0 +1,133 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * This class provides a BlobStore on the local filesystem.
+ * Objects are stored in files named by their hash, under a directory named by the first two characters of the hash,
+ * and are written to a temporary file first so a reader never sees a partially written object.
+ * Variants are stored next to their object, in files named by the hash and the variant name.
+ * It uses Spring's @Service annotation to indicate that it's a service class.
+ */
+@Service
+public class FileSystemBlobStore implements BlobStore {
+
+    // A SHA-256 hash in lowercase hexadecimal
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private static final Pattern VARIANT = Pattern.compile("[a-z0-9]+");
+
+    private final Path root;
+
+    /**
+     * This constructor is used to create a FileSystemBlobStore.
+     * @param storageDir The directory in which the objects are stored, created if it does not exist.
+     */
+    public FileSystemBlobStore(@Value("${images.storage-dir:data/images}") String storageDir) {
+        this.root = Paths.get(storageDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String put(byte[] data) {
+        String hash = hash(data);
+        Path target = resolve(hash);
+        if (!Files.exists(target)) { // otherwise the same content is already stored
+            write(target, data);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.exists(resolve(hash));
+    }
+
+    @Override
+    public Optional<Resource> get(String hash) {
+        Path path = resolve(hash);
+        return Files.exists(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    @Override
+    public void putVariant(String hash, String variant, byte[] data) {
+        write(resolveVariant(hash, variant), data);
+    }
+
+    @Override
+    public Optional<Resource> getVariant(String hash, String variant) {
+        Path path = resolveVariant(hash, variant);
+        return Files.exists(path) ? Optional.of(new FileSystemResource(path)) : Optional.empty();
+    }
+
+    /**
+     * This method computes the SHA-256 hash of some content.
+     * @param data The content.
+     * @return The hash, as 64 lowercase hexadecimal characters.
+     */
+    public static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * This method returns the path of an object.
+     * The hash is validated first, so it can never point outside of the storage directory.
+     * @param hash The hash of the object.
+     * @return The path of the object.
+     * @throws IllegalArgumentException if the hash is not a valid hash.
+     */
+    private Path resolve(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid image hash");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * This method returns the path of a variant of an object.
+     * @param hash The hash of the object.
+     * @param variant The name of the variant.
+     * @return The path of the variant.
+     * @throws IllegalArgumentException if the hash or the variant name is not valid.
+     */
+    private Path resolveVariant(String hash, String variant) {
+        if (variant == null || !VARIANT.matcher(variant).matches()) {
+            throw new IllegalArgumentException("Invalid image variant");
+        }
+        return resolve(hash).resolveSibling(hash + "-" + variant);
+    }
+
+    /**
+     * This method writes a file through a temporary file in the same directory, which is then moved in place.
+     * @param target The path of the file.
+     * @param data The content of the file.
+     */
+    private void write(Path target, byte[] data) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store object " + target.getFileName(), e);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import EasyAppointment.appointmentscheduler.util.ImageFormat;
+import EasyAppointment.appointmentscheduler.util.ImageSize;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class provides services related to uploaded images.
+ * It only accepts uploads in one of the ImageFormat formats, since the images are served without authentication.
+ * It stores an upload in the blob store and precomputes its resized variants on a background executor,
+ * so lists can load small thumbnails instead of the original upload.
+ * Once the variants of an image are computed, a processed marker is stored next to them, so an image that is already
+ * smaller than a size is told apart from one whose variants were never computed.
+ * An image without the marker, because its work was rejected by a full queue or failed, is scheduled again
+ * on the next request for one of its sizes, and the original is served until then.
+ * It uses Spring's @Service annotation to indicate that it's a service class.
+ */
+@Service
+public class ImageService {
+    // The variant that marks an image whose variants are all computed
+    private static final String PROCESSED = "processed";
+
+    private final BlobStore blobStore;
+    private final ThreadPoolTaskExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // The JPEG quality of the variants, between 0 and 1
+    @Value("${images.variant-quality:0.8}")
+    private float variantQuality;
+
+    /**
+     * This constructor is used to create an ImageService with the required dependencies.
+     * @param blobStore The blob store of the images.
+     * @param executor The bounded executor that computes the variants.
+     */
+    public ImageService(BlobStore blobStore,
+                        @Qualifier("imageProcessingExecutor") ThreadPoolTaskExecutor executor) {
+        this.blobStore = blobStore;
+        this.executor = executor;
+    }
+
+    /**
+     * This method stores an uploaded image and schedules the computation of its variants.
+     * It returns as soon as the original is stored.
+     * @param data The content of the image.
+     * @return The hash of the image.
+     * @throws IllegalArgumentException if the content is not an image in one of the accepted formats.
+     */
+    public String store(byte[] data) {
+        detectFormat(data);
+        String hash = blobStore.put(data);
+        schedule(hash, () -> data);
+        return hash;
+    }
+
+    /**
+     * This method recognizes the format of an uploaded image and checks that its header decodes.
+     * WebP has no decoder in the JDK, so it is accepted on its signature alone.
+     * @param data The content of the image.
+     * @return The ImageFormat of the image.
+     * @throws IllegalArgumentException if the content is not an image in one of the accepted formats.
+     */
+    public ImageFormat detectFormat(byte[] data) {
+        ImageFormat format = ImageFormat.detect(data)
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported image format, expected PNG, JPEG, GIF or WebP"));
+        if (format != ImageFormat.WEBP && !decodes(data, format)) {
+            throw new IllegalArgumentException("Image could not be read as " + format);
+        }
+        return format;
+    }
+
+    /**
+     * This method checks if ImageIO reads an image of the given format from some content, up to its dimensions.
+     * @param data The content of the image.
+     * @param format The format recognized from its signature.
+     * @return A boolean indicating whether the content decodes.
+     */
+    private boolean decodes(byte[] data, ImageFormat format) {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(format.name());
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                return reader.getWidth(0) > 0 && reader.getHeight(0) > 0;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * This method checks if the variants of an image are all computed.
+     * A size without a variant then means the original is already within that size.
+     * @param hash The hash of the image.
+     * @return A boolean indicating whether the image is processed.
+     */
+    public boolean isProcessed(String hash) {
+        return blobStore.getVariant(hash, PROCESSED).isPresent();
+    }
+
+    /**
+     * This method schedules the computation of the variants of a stored image that is not processed yet.
+     * It is called when a size of the image is requested, so work that was rejected or failed is retried.
+     * @param hash The hash of the image.
+     */
+    public void requestVariants(String hash) {
+        if (blobStore.exists(hash)) {
+            schedule(hash, () -> blobStore.get(hash).orElseThrow().getContentAsByteArray());
+        }
+    }
+
+    /**
+     * This method computes and stores the variants of an image, then marks it as processed.
+     * Content that is not a readable image, and sizes the image is already within, get no variant.
+     * If a variant cannot be stored, the image is not marked, so its variants are computed again later.
+     * @param hash The hash of the image.
+     * @param data The content of the image.
+     */
+    public void generateVariants(String hash, byte[] data) {
+        try {
+            BufferedImage original = read(data);
+            if (original != null) {
+                int longestSide = Math.max(original.getWidth(), original.getHeight());
+                for (ImageSize size : ImageSize.values()) {
+                    if (longestSide > size.getMaxDimension()) {
+                        blobStore.putVariant(hash, size.getVariant(), encode(resize(original, size.getMaxDimension())));
+                    }
+                }
+            }
+            blobStore.putVariant(hash, PROCESSED, new byte[0]);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not compute the image variants of " + hash + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method schedules the computation of the variants of an image on the executor,
+     * unless the image is processed or already scheduled.
+     * @param hash The hash of the image.
+     * @param data The content of the image, read when the work runs.
+     */
+    private void schedule(String hash, Callable<byte[]> data) {
+        if (isProcessed(hash) || !pending.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateVariants(hash, data.call());
+                } catch (Exception e) {
+                    System.out.println("Could not read the image " + hash + ": " + e.getMessage());
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pending.remove(hash);
+            System.out.println("Image variants of " + hash + " deferred: processing queue is full");
+        }
+    }
+
+    /**
+     * This method decodes an image.
+     * @param data The content of the image.
+     * @return The image, or null if the content is not an image ImageIO can read.
+     */
+    private BufferedImage read(byte[] data) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(data));
+        } catch (IOException e) { // a corrupted image, which no retry can read either
+            return null;
+        }
+    }
+
+    /**
+     * This method scales an image down so its longest side is the given size, keeping its aspect ratio.
+     * It halves the image until it is close to the target first, since a single bilinear step would skip pixels.
+     * @param image The image.
+     * @param maxDimension The longest side of the resized image, in pixels.
+     * @return The resized image.
+     */
+    private BufferedImage resize(BufferedImage image, int maxDimension) {
+        double scale = (double) maxDimension / Math.max(image.getWidth(), image.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage current = image;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            current = draw(current, width, height);
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    /**
+     * This method draws an image at a new size.
+     * @param image The image.
+     * @param width The new width.
+     * @param height The new height.
+     * @return The drawn image.
+     */
+    private BufferedImage draw(BufferedImage image, int width, int height) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage resized = new BufferedImage(width, height, type);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    /**
+     * This method encodes a variant.
+     * Opaque images are recompressed as JPEG, and images with transparency are kept as PNG.
+     * @param image The image.
+     * @return The encoded image.
+     * @throws IOException if the image cannot be encoded.
+     */
+    private byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (image.getColorModel().hasAlpha()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(variantQuality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
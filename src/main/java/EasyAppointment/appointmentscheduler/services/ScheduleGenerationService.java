@@ -0,0 +1,302 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import EasyAppointment.appointmentscheduler.DTO.ScheduleGenerationJobDTO;
+import EasyAppointment.appointmentscheduler.models.Appointment;
+import EasyAppointment.appointmentscheduler.models.JobStatus;
+import EasyAppointment.appointmentscheduler.models.ScheduleGenerationJob;
+import EasyAppointment.appointmentscheduler.models.ServiceProvider;
+import EasyAppointment.appointmentscheduler.repositories.AppointmentRepository;
+import EasyAppointment.appointmentscheduler.repositories.ScheduleGenerationJobRepository;
+import EasyAppointment.appointmentscheduler.repositories.ServiceProviderRepository;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
+import EasyAppointment.appointmentscheduler.util.ScheduleTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * This class provides services related to the generation of service provider schedules.
+ * It is only used when virtual slots are disabled and the schedule is pre-generated as Appointment rows.
+ * The generation runs on a dedicated bounded executor, split into weekly chunks that are each committed
+ * in their own transaction, and its progress is persisted so it can be polled.
+ * Jobs only live in the executor's memory, so the jobs lost by a restart are failed on startup.
+ * It uses Spring's @Service annotation to indicate that it's a service class.
+ */
+@Service
+public class ScheduleGenerationService {
+    private static final int DAYS_PER_CHUNK = 7;
+    private static final Set<JobStatus> ACTIVE_JOB_STATUSES = EnumSet.of(JobStatus.PENDING, JobStatus.RUNNING);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final ScheduleGenerationJobRepository jobRepository;
+    private final AvailabilityService availabilityService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+
+    // A pending or running job that was not updated for this long was lost, a running job is updated after every chunk
+    @Value("${scheduling.generation.stale-after-minutes:30}")
+    private long staleAfterMinutes;
+
+    /**
+     * This constructor is used to create a ScheduleGenerationService with the required dependencies.
+     * @param appointmentRepository The repository for appointments.
+     * @param serviceProviderRepository The repository for service providers.
+     * @param jobRepository The repository for generation jobs.
+     * @param availabilityService The service that computes the slots from the schedule rules.
+     * @param transactionManager The transaction manager used to commit each chunk in its own transaction.
+     * @param executor The bounded executor that runs the generation.
+     */
+    public ScheduleGenerationService(AppointmentRepository appointmentRepository,
+                                     ServiceProviderRepository serviceProviderRepository,
+                                     ScheduleGenerationJobRepository jobRepository,
+                                     AvailabilityService availabilityService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("scheduleGenerationExecutor") ThreadPoolTaskExecutor executor) {
+        this.appointmentRepository = appointmentRepository;
+        this.serviceProviderRepository = serviceProviderRepository;
+        this.jobRepository = jobRepository;
+        this.availabilityService = availabilityService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // always a new transaction, also when called from the afterCommit callback of the creating transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+    }
+
+    /**
+     * This method schedules the generation of a service provider's appointments up to the scheduling horizon.
+     * It persists a pending job and submits it to the generation executor once the current transaction commits,
+     * so the caller returns immediately and the worker always sees the saved service provider.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param serviceProvider The saved service provider.
+     * @return The pending ScheduleGenerationJob object.
+     */
+    @Transactional
+    public ScheduleGenerationJob scheduleGeneration(ServiceProvider serviceProvider) {
+        LocalDate from = LocalDate.now();
+        LocalDate to = availabilityService.getSchedulingHorizon();
+        LocalDateTime now = LocalDateTime.now();
+
+        ScheduleGenerationJob job = jobRepository.save(ScheduleGenerationJob.builder()
+                .serviceProviderId(serviceProvider.getId())
+                .status(JobStatus.PENDING)
+                .totalChunks(countChunks(from, to))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        Long jobId = job.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId, from, to);
+                }
+            });
+        } else {
+            submit(jobId, from, to);
+        }
+        return job;
+    }
+
+    /**
+     * This method retrieves the latest generation job of a service provider.
+     * It uses Spring's @Transactional annotation to ensure the operation is performed within a transaction.
+     * @param serviceProviderId The ID of the service provider.
+     * @return An ApiResponse object containing the result of the operation.
+     */
+    @Transactional(readOnly = true)
+    public ApiResponse<ScheduleGenerationJobDTO> getLatestJob(Long serviceProviderId) {
+        ScheduleGenerationJob job = jobRepository.findFirstByServiceProviderIdOrderByCreatedAtDesc(serviceProviderId)
+                .orElseThrow(() -> new NoSuchElementException("No schedule generation found for service provider " + serviceProviderId));
+        return new ApiResponse<>(true, "Schedule generation status fetched successfully", new ScheduleGenerationJobDTO(job));
+    }
+
+    /**
+     * This method returns the time before which a pending or running job is considered lost.
+     * @return The cutoff time.
+     */
+    public LocalDateTime getStaleJobCutoff() {
+        return LocalDateTime.now().minusMinutes(staleAfterMinutes);
+    }
+
+    /**
+     * This method fails the pending and running jobs that were lost, so they no longer report progress
+     * and their service providers are extended again by the nightly run.
+     * It runs on startup, since a restart loses every job of the previous executor, and before each nightly run.
+     * @return The number of failed jobs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int failStaleJobs() {
+        Integer failed = transactionTemplate.execute(status -> jobRepository.failStaleJobs(ACTIVE_JOB_STATUSES,
+                getStaleJobCutoff(), JobStatus.FAILED, "Schedule generation was interrupted", LocalDateTime.now()));
+        if (failed != null && failed > 0) {
+            System.out.println("Failed " + failed + " interrupted schedule generation jobs");
+        }
+        return failed != null ? failed : 0;
+    }
+
+    /**
+     * This method extends the schedule of a service provider up to the given horizon.
+     * It generates only the days after the service provider's watermark, in weekly chunks that each commit
+     * the appointments together with the new watermark, so it is incremental and can safely be re-run after a failure.
+     * Service providers created before the watermark existed get it from their latest appointment.
+     * It must be called outside of a transaction.
+     * @param serviceProviderId The ID of the service provider.
+     * @param horizon The last date to generate.
+     * @return The number of generated appointments.
+     */
+    public int extendSchedule(Long serviceProviderId, LocalDate horizon) {
+        LocalDate today = LocalDate.now();
+        LocalDate watermark = transactionTemplate.execute(status -> {
+            ServiceProvider serviceProvider = serviceProviderRepository.findById(serviceProviderId)
+                    .orElseThrow(() -> new NoSuchElementException("Service Provider not found"));
+            if (serviceProvider.getScheduledUntil() != null) {
+                return serviceProvider.getScheduledUntil();
+            }
+            return appointmentRepository.findLatestStartTime(serviceProviderId)
+                    .map(LocalDateTime::toLocalDate)
+                    .orElse(today.minusDays(1));
+        });
+
+        LocalDate from = watermark.isBefore(today) ? today : watermark.plusDays(1);
+        int[] generated = {0};
+        forEachChunk(from, horizon, (chunkStart, chunkEnd) ->
+                generated[0] += transactionTemplate.execute(status -> generateChunk(serviceProviderId, chunkStart, chunkEnd)));
+        return generated[0];
+    }
+
+    /**
+     * This method submits a job to the generation executor.
+     * If the executor's queue is full, the job is marked as failed instead.
+     * @param jobId The ID of the job.
+     * @param from The first date to generate.
+     * @param to The last date to generate.
+     */
+    private void submit(Long jobId, LocalDate from, LocalDate to) {
+        try {
+            executor.execute(() -> runJob(jobId, from, to));
+        } catch (TaskRejectedException e) {
+            finishJob(jobId, JobStatus.FAILED, "Schedule generation queue is full");
+        }
+    }
+
+    /**
+     * This method runs a job chunk by chunk.
+     * Each weekly chunk and the job's progress are committed together, so a failure keeps the chunks generated so far.
+     * @param jobId The ID of the job.
+     * @param from The first date to generate.
+     * @param to The last date to generate.
+     */
+    private void runJob(Long jobId, LocalDate from, LocalDate to) {
+        try {
+            Long serviceProviderId = transactionTemplate.execute(status -> {
+                ScheduleGenerationJob job = jobRepository.findById(jobId).orElseThrow();
+                job.setStatus(JobStatus.RUNNING);
+                job.setUpdatedAt(LocalDateTime.now());
+                return job.getServiceProviderId();
+            });
+
+            forEachChunk(from, to, (chunkStart, chunkEnd) -> transactionTemplate.executeWithoutResult(status -> {
+                int generated = generateChunk(serviceProviderId, chunkStart, chunkEnd);
+                ScheduleGenerationJob job = jobRepository.findById(jobId).orElseThrow();
+                job.setCompletedChunks(job.getCompletedChunks() + 1);
+                job.setGeneratedSlots(job.getGeneratedSlots() + generated);
+                job.setUpdatedAt(LocalDateTime.now());
+            }));
+            finishJob(jobId, JobStatus.DONE, null);
+        } catch (RuntimeException e) {
+            finishJob(jobId, JobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    /**
+     * This method splits a date range into weekly chunks and passes each chunk to the given action, in order.
+     * @param from The first date.
+     * @param to The last date.
+     * @param action The action receiving the first and last date of each chunk.
+     */
+    private void forEachChunk(LocalDate from, LocalDate to, BiConsumer<LocalDate, LocalDate> action) {
+        for (LocalDate chunkStart = from; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(DAYS_PER_CHUNK)) {
+            LocalDate chunkEnd = chunkStart.plusDays(DAYS_PER_CHUNK - 1);
+            action.accept(chunkStart, chunkEnd.isAfter(to) ? to : chunkEnd);
+        }
+    }
+
+    /**
+     * This method generates and saves the appointments of a service provider between two dates, inclusive,
+     * and moves the service provider's watermark to the last date.
+     * It must be called within a transaction.
+     * @param serviceProviderId The ID of the service provider.
+     * @param from The first date.
+     * @param to The last date.
+     * @return The number of generated appointments.
+     */
+    private int generateChunk(Long serviceProviderId, LocalDate from, LocalDate to) {
+        ServiceProvider serviceProvider = serviceProviderRepository.findById(serviceProviderId)
+                .orElseThrow(() -> new NoSuchElementException("Service Provider not found"));
+        int sessionDuration = serviceProvider.getSessionDuration();
+        ScheduleTemplate template = availabilityService.compileTemplate(serviceProvider, serviceProvider.getBranch());
+        List<Appointment> appointments = new ArrayList<>();
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (LocalDateTime start : availabilityService.computeDaySlots(template, date)) {
+                appointments.add(Appointment.builder()
+                        .serviceProvider(serviceProvider)
+                        .startTime(start)
+                        .endTime(start.plusMinutes(sessionDuration))
+                        .isAvailable(true)
+                        .duration(sessionDuration)
+                        .build());
+            }
+        }
+        appointmentRepository.persistAll(appointments); // batched inserts, may detach the loaded entities
+        serviceProviderRepository.advanceScheduledUntil(serviceProviderId, to);
+        return appointments.size();
+    }
+
+    /**
+     * This method sets the final status of a job in its own transaction.
+     * @param jobId The ID of the job.
+     * @param status The final status.
+     * @param errorMessage The error message, or null if the job succeeded.
+     */
+    private void finishJob(Long jobId, JobStatus status, String errorMessage) {
+        transactionTemplate.executeWithoutResult(transactionStatus -> jobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setErrorMessage(errorMessage);
+            job.setUpdatedAt(LocalDateTime.now());
+        }));
+    }
+
+    /**
+     * This method counts the weekly chunks between two dates, inclusive.
+     * @param from The first date.
+     * @param to The last date.
+     * @return The number of chunks.
+     */
+    private int countChunks(LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        return (int) ((days + DAYS_PER_CHUNK - 1) / DAYS_PER_CHUNK);
+    }
+}
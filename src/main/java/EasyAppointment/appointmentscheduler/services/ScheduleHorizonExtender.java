@@ -0,0 +1,106 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import EasyAppointment.appointmentscheduler.models.JobStatus;
+import EasyAppointment.appointmentscheduler.repositories.ServiceProviderRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class keeps the pre-generated schedules of the service providers up to the rolling scheduling horizon.
+ * Every night it pages through the service providers whose watermark is before the horizon and extends each of them
+ * by the missing days only, processing the service providers of a page in parallel.
+ * It does nothing when virtual slots are enabled, since the slots are then computed up to the horizon on every read.
+ * It uses Spring's @Service annotation to indicate that it's a service class.
+ */
+@Service
+public class ScheduleHorizonExtender {
+    private static final Set<JobStatus> ACTIVE_JOB_STATUSES = EnumSet.of(JobStatus.PENDING, JobStatus.RUNNING);
+
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final ScheduleGenerationService scheduleGenerationService;
+    private final AvailabilityService availabilityService;
+    private final ThreadPoolTaskExecutor executor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // The number of service providers fetched and extended per page
+    @Value("${scheduling.extender.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * This constructor is used to create a ScheduleHorizonExtender with the required dependencies.
+     * @param serviceProviderRepository The repository for service providers.
+     * @param scheduleGenerationService The service that generates the schedules.
+     * @param availabilityService The service that provides the scheduling horizon.
+     * @param executor The bounded executor that extends the schedules in parallel.
+     */
+    public ScheduleHorizonExtender(ServiceProviderRepository serviceProviderRepository,
+                                   ScheduleGenerationService scheduleGenerationService,
+                                   AvailabilityService availabilityService,
+                                   @Qualifier("scheduleExtensionExecutor") ThreadPoolTaskExecutor executor) {
+        this.serviceProviderRepository = serviceProviderRepository;
+        this.scheduleGenerationService = scheduleGenerationService;
+        this.availabilityService = availabilityService;
+        this.executor = executor;
+    }
+
+    /**
+     * This method extends the schedules of all the service providers to the scheduling horizon.
+     * It runs on the configured cron, nightly by default, and skips a run if the previous one is still going.
+     * A service provider that fails is left at its watermark and picked up again by the next run.
+     * Lost generation jobs are failed first, so they no longer keep their service providers from being extended.
+     * @return The number of generated appointments.
+     */
+    @Scheduled(cron = "${scheduling.extender.cron:0 0 2 * * *}")
+    public int extendHorizon() {
+        if (availabilityService.isVirtualSlotsEnabled() || !running.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            scheduleGenerationService.failStaleJobs();
+            LocalDate horizon = availabilityService.getSchedulingHorizon();
+            LocalDateTime staleBefore = scheduleGenerationService.getStaleJobCutoff();
+            AtomicInteger generated = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            Long afterId = 0L;
+
+            List<Long> page = serviceProviderRepository.findIdsScheduledBefore(afterId, horizon, ACTIVE_JOB_STATUSES, staleBefore, PageRequest.of(0, batchSize));
+            while (!page.isEmpty()) {
+                List<CompletableFuture<Void>> futures = new ArrayList<>(page.size());
+                for (Long serviceProviderId : page) {
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            generated.addAndGet(scheduleGenerationService.extendSchedule(serviceProviderId, horizon));
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                    }, executor));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+                afterId = page.get(page.size() - 1);
+                page = serviceProviderRepository.findIdsScheduledBefore(afterId, horizon, ACTIVE_JOB_STATUSES, staleBefore,
+                        PageRequest.of(0, batchSize));
+            }
+
+            System.out.println("Schedule horizon extended to " + horizon + ": " + generated.get() + " appointments generated, "
+                    + failed.get() + " service providers failed");
+            return generated.get();
+        } finally {
+            running.set(false);
+        }
+    }
+}
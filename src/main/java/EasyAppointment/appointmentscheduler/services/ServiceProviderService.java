@@ -1,11 +1,13 @@
 package EasyAppointment.appointmentscheduler.services;
 
 import EasyAppointment.appointmentscheduler.DTO.ServiceProviderDTO;
+import EasyAppointment.appointmentscheduler.DTO.ServiceProviderStatsDTO;
 import EasyAppointment.appointmentscheduler.exception.UserAlreadyOwnException;
 import EasyAppointment.appointmentscheduler.models.*;
 import EasyAppointment.appointmentscheduler.repositories.*;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiRequest;
 import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
+import EasyAppointment.appointmentscheduler.util.BreakTimes;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
@@ -26,7 +28,9 @@ public class ServiceProviderService {
     private final BranchRepository branchRepository;
     private final ServiceProviderRepository serviceProviderRepository;
     private final BusinessRepository businessRepository;
-    private final AppointmentService appointmentService;
+    private final ScheduleGenerationService scheduleGenerationService;
+    private final AvailabilityService availabilityService;
+    private final ImageService imageService;
 
     /**
      * This method retrieves a list of service providers by branch.
@@ -47,8 +51,9 @@ public class ServiceProviderService {
         }
 
         Set<ServiceProvider> serviceProviders = branchOptional.get().getServiceProviders();
+        Map<Long, ServiceProviderStatsDTO> stats = availabilityService.getServiceProviderStats(serviceProviders);
         List<ServiceProviderDTO> serviceProviderDTOs = serviceProviders.stream()
-                .map(ServiceProviderDTO::new)
+                .map(serviceProvider -> new ServiceProviderDTO(serviceProvider, stats.get(serviceProvider.getId())))
                 .collect(Collectors.toList());
 
         return new ApiResponse<>(true, "Service Providers fetched successfully", serviceProviderDTOs);
@@ -78,7 +83,8 @@ public class ServiceProviderService {
             throw new IllegalArgumentException("Wrong branch or business provided");
         }
 
-        ServiceProviderDTO serviceProviderDTO = new ServiceProviderDTO(serviceProvider);
+        ServiceProviderDTO serviceProviderDTO = new ServiceProviderDTO(serviceProvider,
+                availabilityService.getServiceProviderStats(List.of(serviceProvider)).get(serviceProvider.getId()));
         return new ApiResponse<>(true, "Service Provider fetched successfully", serviceProviderDTO);
     }
     /**
@@ -118,6 +124,7 @@ public class ServiceProviderService {
             throw new IllegalArgumentException("Service Provider must have at least one working day");
         }
         System.out.println("Request: " + request.getData().toString());
+        int[] breakMinutes = BreakTimes.parse(request.getData().getBreakHour()); // rejects invalid break times before saving
 
         try {
             ServiceProvider.ServiceProviderBuilder serviceProviderBuilder = ServiceProvider.builder()
@@ -127,17 +134,19 @@ public class ServiceProviderService {
                     .sessionDuration(request.getData().getSessionDuration());
 
 
-            if (request.getData().getBreakHour() != null){
-                serviceProviderBuilder.breakHour(Arrays.toString(request.getData().getBreakHour()));
-            }
+            serviceProviderBuilder
+                    .breakMinutes(breakMinutes)
+                    .breakHour(BreakTimes.toLegacyString(breakMinutes));
 
             if (request.getData().getServiceProviderImage() != null){
-                serviceProviderBuilder.serviceProviderImage(request.getData().getServiceProviderImage());
+                serviceProviderBuilder.serviceProviderImageHash(imageService.store(request.getData().getServiceProviderImage()));
             }
 
             serviceProvider = serviceProviderBuilder.build();
             serviceProvider = serviceProviderRepository.save(serviceProvider); // Save the serviceProvider object to the database
-            appointmentService.generateAndSaveServiceProviderSchedule(serviceProvider, branchRepository.findById(branchId).get());
+            if (!availabilityService.isVirtualSlotsEnabled()) { // virtual slots are computed on the fly, nothing to generate
+                scheduleGenerationService.scheduleGeneration(serviceProvider); // runs in the background after commit
+            }
             branchRepository.findById(branchId).get().getServiceProviders().add(serviceProvider);
         } catch (Exception e) {
             throw new RuntimeException("Error in adding service provider: " + e.getMessage());
@@ -169,6 +178,7 @@ public class ServiceProviderService {
 
             branchRepository.findById(branchId).get().getServiceProviders().remove(serviceProvider);
             branchRepository.save(branchRepository.findById(branchId).get());
+            availabilityService.evictScheduleTemplate(serviceProviderId);
         }catch (Exception e){
             return new ApiResponse<>(false, "Error in deleting service provider: " + e.getMessage(), null);
         }
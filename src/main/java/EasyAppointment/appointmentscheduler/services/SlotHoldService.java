@@ -0,0 +1,182 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import EasyAppointment.appointmentscheduler.DTO.SlotHoldDTO;
+import EasyAppointment.appointmentscheduler.exception.AppointmentAlreadyBookedException;
+import EasyAppointment.appointmentscheduler.repositories.AppointmentRepository;
+import EasyAppointment.appointmentscheduler.util.VirtualSlotIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * This class provides temporary holds on appointments during checkout.
+ * A hold keeps its appointments reserved in the reservation layer for a configurable time, so other users
+ * are rejected without going to the database, until the holder confirms it into a booking or it expires.
+ * Holds are kept in memory and their expiry is tracked by a delay queue that is drained periodically,
+ * so abandoned holds are released in bulk without polling the database.
+ * It uses Spring's @Service annotation to indicate that it's a service class.
+ */
+@Service
+public class SlotHoldService {
+
+    private final SlotReservationGate reservationGate;
+    private final AppointmentRepository appointmentRepository;
+    private final Map<String, SlotHold> holds = new ConcurrentHashMap<>();
+    private final DelayQueue<SlotHold> expiries = new DelayQueue<>();
+
+    // How long a hold lasts, in seconds
+    @Value("${booking.hold.ttl-seconds:300}")
+    private long holdTtlSeconds;
+
+    /**
+     * This constructor is used to create a SlotHoldService with the required dependencies.
+     * @param reservationGate The reservation layer that keeps the held appointments reserved.
+     * @param appointmentRepository The repository for appointments.
+     */
+    public SlotHoldService(SlotReservationGate reservationGate, AppointmentRepository appointmentRepository) {
+        this.reservationGate = reservationGate;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    /**
+     * This method holds appointments for a user.
+     * The persisted appointments among them must still be available.
+     * @param appointmentIds The IDs of the appointments to hold, persisted or virtual.
+     * @param holder The email of the user holding the appointments.
+     * @return The SlotHoldDTO of the new hold.
+     * @throws AppointmentAlreadyBookedException if one of the appointments is held, being booked or booked.
+     */
+    public SlotHoldDTO hold(Set<Long> appointmentIds, String holder) {
+        if (appointmentIds == null || appointmentIds.isEmpty()) {
+            throw new IllegalArgumentException("No appointments to hold");
+        }
+        Set<Long> ids = Set.copyOf(appointmentIds);
+        reservationGate.reserve(ids);
+
+        Set<Long> persistedIds = ids.stream().filter(id -> !VirtualSlotIds.isVirtual(id)).collect(Collectors.toSet());
+        if (!persistedIds.isEmpty() && appointmentRepository.countByIdInAndIsAvailableTrue(persistedIds) != persistedIds.size()) {
+            reservationGate.release(ids, false);
+            throw new AppointmentAlreadyBookedException("One or more appointments are not available");
+        }
+
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(), ids, holder,
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(holdTtlSeconds));
+        holds.put(hold.getId(), hold);
+        expiries.add(hold);
+        return toDTO(hold);
+    }
+
+    /**
+     * This method removes a hold so it can be confirmed into a booking.
+     * The appointments stay reserved, the caller must release them in the reservation layer once the booking is done.
+     * @param holdId The ID of the hold.
+     * @param holder The email of the user confirming the hold.
+     * @return The IDs of the held appointments.
+     * @throws NoSuchElementException if the hold does not exist, has expired or belongs to another user.
+     */
+    public Set<Long> take(String holdId, String holder) {
+        SlotHold hold = holds.get(holdId);
+        if (hold == null || !hold.getHolder().equals(holder) || !holds.remove(holdId, hold)) {
+            throw new NoSuchElementException("Hold not found or expired: " + holdId);
+        }
+        expiries.remove(hold);
+        if (hold.getDelay(TimeUnit.MILLISECONDS) <= 0) {
+            reservationGate.release(hold.getAppointmentIds(), false);
+            throw new NoSuchElementException("Hold not found or expired: " + holdId);
+        }
+        return hold.getAppointmentIds();
+    }
+
+    /**
+     * This method releases a hold before it expires.
+     * @param holdId The ID of the hold.
+     * @param holder The email of the user releasing the hold.
+     * @throws NoSuchElementException if the hold does not exist, has expired or belongs to another user.
+     */
+    public void release(String holdId, String holder) {
+        reservationGate.release(take(holdId, holder), false);
+    }
+
+    /**
+     * This method releases the expired holds.
+     * It runs every second by default, and drains all the expired holds from the delay queue at once.
+     * @return The number of released holds.
+     */
+    @Scheduled(fixedDelayString = "${booking.hold.expiry-interval-ms:1000}")
+    public int releaseExpiredHolds() {
+        List<SlotHold> expired = new ArrayList<>();
+        expiries.drainTo(expired);
+        int released = 0;
+        for (SlotHold hold : expired) {
+            if (holds.remove(hold.getId(), hold)) { // not confirmed or released in the meantime
+                reservationGate.release(hold.getAppointmentIds(), false);
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * This method converts a hold into a SlotHoldDTO.
+     * @param hold The hold.
+     * @return The SlotHoldDTO object.
+     */
+    private SlotHoldDTO toDTO(SlotHold hold) {
+        return new SlotHoldDTO(hold.getId(), hold.getAppointmentIds(),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.getExpiresAt()), ZoneId.systemDefault()));
+    }
+
+    /**
+     * This class represents a hold on appointments.
+     * It is ordered by expiry time in the delay queue of the SlotHoldService.
+     */
+    private static final class SlotHold implements Delayed {
+        private final String id;
+        private final Set<Long> appointmentIds;
+        private final String holder;
+        private final long expiresAt;
+
+        SlotHold(String id, Set<Long> appointmentIds, String holder, long expiresAt) {
+            this.id = id;
+            this.appointmentIds = appointmentIds;
+            this.holder = holder;
+            this.expiresAt = expiresAt;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        Set<Long> getAppointmentIds() {
+            return appointmentIds;
+        }
+
+        String getHolder() {
+            return holder;
+        }
+
+        long getExpiresAt() {
+            return expiresAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import EasyAppointment.appointmentscheduler.exception.AppointmentAlreadyBookedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class provides the in-memory reservation layer in front of the booking transaction.
+ * A booking first reserves its appointment IDs here, so a contender for an appointment that is being booked,
+ * or that was booked moments ago, is rejected before it opens a database transaction.
+ * The IDs are spread over a configurable number of stripes, each guarding its own reservations with its own lock.
+ * It only holds the state of this instance, the database claim remains the authority on which booking wins.
+ * It uses Spring's @Service annotation to indicate that it's a service class.
+ */
+@Service
+public class SlotReservationGate {
+
+    private final int stripeCount;
+    private final long claimedTtlMillis;
+    private final ReentrantLock[] locks;
+    private final List<Set<Long>> inFlight;
+    private final List<Map<Long, Long>> claimed; // appointment ID to expiry time in milliseconds
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong rejectedInFlight = new AtomicLong();
+    private final AtomicLong rejectedClaimed = new AtomicLong();
+
+    /**
+     * This constructor is used to create a SlotReservationGate.
+     * @param stripeCount The number of stripes.
+     * @param claimedTtlSeconds How long a booked appointment is rejected without going to the database, in seconds.
+     */
+    public SlotReservationGate(@Value("${booking.reservation.stripes:64}") int stripeCount,
+                               @Value("${booking.reservation.claimed-ttl-seconds:30}") long claimedTtlSeconds) {
+        this.stripeCount = Math.max(1, stripeCount);
+        this.claimedTtlMillis = claimedTtlSeconds * 1000;
+        this.locks = new ReentrantLock[this.stripeCount];
+        this.inFlight = new ArrayList<>(this.stripeCount);
+        this.claimed = new ArrayList<>(this.stripeCount);
+        for (int i = 0; i < this.stripeCount; i++) {
+            locks[i] = new ReentrantLock();
+            inFlight.add(new HashSet<>());
+            claimed.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * This method reserves appointment IDs for a booking attempt.
+     * Either all of the IDs are reserved or none of them. The stripes are locked in ascending order,
+     * so two attempts sharing stripes cannot deadlock.
+     * @param appointmentIds The IDs of the appointments to reserve.
+     * @throws AppointmentAlreadyBookedException if one of the appointments is being booked or was just booked.
+     */
+    public void reserve(Set<Long> appointmentIds) {
+        attempts.incrementAndGet();
+        int[] stripes = stripesOf(appointmentIds);
+        long now = System.currentTimeMillis();
+
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        try {
+            for (Long id : appointmentIds) {
+                int stripe = stripeOf(id);
+                if (inFlight.get(stripe).contains(id)) {
+                    rejectedInFlight.incrementAndGet();
+                    throw new AppointmentAlreadyBookedException("One or more appointments are not available");
+                }
+                Long expiry = claimed.get(stripe).get(id);
+                if (expiry != null && expiry > now) {
+                    rejectedClaimed.incrementAndGet();
+                    throw new AppointmentAlreadyBookedException("One or more appointments are not available");
+                }
+            }
+            for (Long id : appointmentIds) {
+                int stripe = stripeOf(id);
+                inFlight.get(stripe).add(id);
+                claimed.get(stripe).remove(id);
+            }
+            acquired.incrementAndGet();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * This method ends a booking attempt.
+     * If the booking was committed, the IDs are remembered as booked for the configured time,
+     * otherwise they can be reserved again right away.
+     * @param appointmentIds The IDs of the reserved appointments.
+     * @param booked A boolean indicating whether the booking was committed.
+     */
+    public void release(Set<Long> appointmentIds, boolean booked) {
+        long expiry = System.currentTimeMillis() + claimedTtlMillis;
+        for (int stripe : stripesOf(appointmentIds)) {
+            locks[stripe].lock();
+            try {
+                for (Long id : appointmentIds) {
+                    if (stripeOf(id) == stripe) {
+                        inFlight.get(stripe).remove(id);
+                        if (booked) {
+                            claimed.get(stripe).put(id, expiry);
+                        }
+                    }
+                }
+                if (booked) {
+                    long now = System.currentTimeMillis();
+                    claimed.get(stripe).values().removeIf(time -> time <= now);
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    /**
+     * This method forgets that appointments were booked, so they can be reserved again right away.
+     * It must be called when appointments are released by a cancellation.
+     * @param appointmentIds The IDs of the released appointments.
+     */
+    public void forget(Collection<Long> appointmentIds) {
+        for (Long id : appointmentIds) {
+            int stripe = stripeOf(id);
+            locks[stripe].lock();
+            try {
+                claimed.get(stripe).remove(id);
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+    }
+
+    /**
+     * This method returns the contention metrics of the reservation layer.
+     * @return A map of metric names to their values.
+     */
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("attempts", attempts.get());
+        metrics.put("acquired", acquired.get());
+        metrics.put("rejectedInFlight", rejectedInFlight.get());
+        metrics.put("rejectedRecentlyBooked", rejectedClaimed.get());
+        metrics.put("stripes", (long) stripeCount);
+        return metrics;
+    }
+
+    /**
+     * This method returns the distinct stripes of appointment IDs in ascending order.
+     * @param appointmentIds The IDs of the appointments.
+     * @return The sorted stripe indexes.
+     */
+    private int[] stripesOf(Collection<Long> appointmentIds) {
+        return appointmentIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+    }
+
+    /**
+     * This method returns the stripe of an appointment ID.
+     * @param appointmentId The ID of the appointment.
+     * @return The stripe index.
+     */
+    private int stripeOf(Long appointmentId) {
+        return Math.floorMod(Long.hashCode(appointmentId) * 0x9E3779B9, stripeCount);
+    }
+}
@@ -0,0 +1,106 @@
+package EasyAppointment.appointmentscheduler.services;
+
+import EasyAppointment.appointmentscheduler.DTO.UserPrincipal;
+import EasyAppointment.appointmentscheduler.repositories.UserRepository;
+import EasyAppointment.appointmentscheduler.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class caches the principals of users by email.
+ * The same user is otherwise loaded by the authentication filter and again by every service it calls,
+ * so the principal is read once with a projection query and kept in a BoundedCache, bounded by size and by a TTL.
+ * Entries must be evicted when the role or the business of a user changes.
+ * It only holds the state of this instance, other instances see such changes once the TTL expires.
+ * It uses Spring's @Service annotation to indicate that it's a service class.
+ */
+@Service
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final BoundedCache<String, UserPrincipal> principals;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * This constructor is used to create a UserPrincipalCache.
+     * @param userRepository The repository for users.
+     * @param maxSize The maximum number of cached principals.
+     * @param ttlSeconds How long a principal is cached, in seconds.
+     */
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${security.principal-cache.max-size:10000}") int maxSize,
+                              @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.principals = new BoundedCache<>(() -> maxSize);
+    }
+
+    /**
+     * This method returns the principal of a user, loading it if it is not cached or has expired.
+     * @param email The email of the user.
+     * @return The UserPrincipal of the user.
+     * @throws UsernameNotFoundException if the user does not exist.
+     */
+    public UserPrincipal get(String email) {
+        UserPrincipal cached = principals.get(email);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        // loaded outside of the lock, concurrent misses for the same user may both query
+        UserPrincipal principal = userRepository.findPrincipalByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " not found"));
+        principals.put(email, principal, System.currentTimeMillis() + ttlMillis);
+        return principal;
+    }
+
+    /**
+     * This method removes the cached principal of a user.
+     * It must be called when the role or the business of the user changes.
+     * @param email The email of the user.
+     */
+    public void evict(String email) {
+        principals.remove(email);
+    }
+
+    /**
+     * This method removes the cached principal of a user now and again once the current transaction commits,
+     * so a request running before the commit cannot leave the old principal in the cache.
+     * @param email The email of the user.
+     */
+    public void evictAfterCommit(String email) {
+        evict(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email);
+                }
+            });
+        }
+    }
+
+    /**
+     * This method returns the metrics of the cache.
+     * @return A map of metric names to their values.
+     */
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        metrics.put("evictions", principals.getEvictions());
+        metrics.put("size", (long) principals.size());
+        return metrics;
+    }
+}
@@ -1,6 +1,7 @@
 package EasyAppointment.appointmentscheduler.services;
 
 
+import EasyAppointment.appointmentscheduler.config.TokenVersionCache;
 import EasyAppointment.appointmentscheduler.models.Role;
 import EasyAppointment.appointmentscheduler.models.User;
 import EasyAppointment.appointmentscheduler.repositories.UserRepository;
@@ -18,6 +19,8 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final TokenVersionCache tokenVersionCache;
+    private final UserPrincipalCache userPrincipalCache;
 
     /**
      * This method retrieves the role of the currently authenticated user.
@@ -39,6 +42,9 @@ public class UserService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
         user.setRole(role);
+        user.setTokenVersion(user.getTokenVersion() + 1); // the role claim of existing tokens is now stale
         userRepository.save(user);
+        tokenVersionCache.evict(user.getId());
+        userPrincipalCache.evictAfterCommit(email);
     }
 }
\ No newline at end of file
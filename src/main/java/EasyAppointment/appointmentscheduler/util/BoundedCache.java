@@ -0,0 +1,95 @@
+package EasyAppointment.appointmentscheduler.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * This class is a small in-memory cache bounded by size and by an expiry time per entry.
+ * When it is full, the least recently used entry is evicted, and an expired entry is never returned.
+ * It only holds the state of this instance, so the owners evict the entries they know to be stale.
+ * All operations are synchronized, which is cheap next to the queries the cached values replace.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class BoundedCache<K, V> {
+
+    private final IntSupplier maxSize;
+    private final Map<K, Entry<V>> entries;
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * This constructor is used to create a BoundedCache.
+     * The maximum size is read on every insert, so it can come from a setting injected after construction.
+     * @param maxSize The maximum number of entries.
+     */
+    public BoundedCache(IntSupplier maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize.getAsInt()) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * This method returns a cached value, unless it has expired.
+     * @param key The key.
+     * @return The value, or null if it is not cached or has expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * This method caches a value until a given time, evicting the least recently used entry if the cache is full.
+     * @param key The key.
+     * @param value The value.
+     * @param expiresAt The time the value expires, in milliseconds since the epoch.
+     */
+    public synchronized void put(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * This method removes a cached value.
+     * @param key The key.
+     */
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * This method returns the number of cached entries, including expired ones not removed yet.
+     * @return The size of the cache.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * This method returns the number of entries evicted because the cache was full.
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
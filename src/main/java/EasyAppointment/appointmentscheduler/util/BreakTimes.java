@@ -0,0 +1,118 @@
+package EasyAppointment.appointmentscheduler.util;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class provides the canonical parsing and formatting of break times.
+ * A break is stored as a pair of minutes from midnight, the start and the exclusive end,
+ * and the breaks of a service provider are stored as consecutive pairs in a single int array.
+ */
+public class BreakTimes {
+
+    /**
+     * This method parses break times as sent by the client.
+     * Each value is either a single time ("HH:mm"), in which case consecutive values form the start and end of a break,
+     * or a whole break ("HH:mm-HH:mm").
+     * @param values The break times to be parsed.
+     * @return The breaks as consecutive pairs of start and end minutes, sorted by start and not overlapping.
+     * @throws IllegalArgumentException if a value is not a valid time or break, a break has no end,
+     * a break does not end after it starts, or two breaks overlap.
+     */
+    public static int[] parse(String[] values) {
+        if (values == null) {
+            return new int[0];
+        }
+
+        List<Integer> minutes = new ArrayList<>();
+        for (String value : values) {
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            if (value.contains("-")) {
+                String[] range = value.split("-", -1);
+                if (range.length != 2) {
+                    throw new IllegalArgumentException("Invalid break time: " + value.trim() + ", expected HH:mm-HH:mm");
+                }
+                minutes.add(toMinute(range[0]));
+                minutes.add(toMinute(range[1]));
+            } else {
+                minutes.add(toMinute(value));
+            }
+        }
+        if (minutes.size() % 2 != 0) {
+            throw new IllegalArgumentException("Invalid break time: every break must have a start and an end");
+        }
+
+        int[][] breaks = new int[minutes.size() / 2][];
+        for (int i = 0; i < breaks.length; i++) {
+            breaks[i] = new int[]{minutes.get(2 * i), minutes.get(2 * i + 1)};
+            if (breaks[i][0] >= breaks[i][1]) {
+                throw new IllegalArgumentException("Invalid break time: a break must end after it starts");
+            }
+        }
+        Arrays.sort(breaks, (a, b) -> Integer.compare(a[0], b[0]));
+
+        int[] breakMinutes = new int[minutes.size()];
+        for (int i = 0; i < breaks.length; i++) {
+            if (i > 0 && breaks[i][0] < breaks[i - 1][1]) {
+                throw new IllegalArgumentException("Invalid break time: breaks must not overlap");
+            }
+            breakMinutes[2 * i] = breaks[i][0];
+            breakMinutes[2 * i + 1] = breaks[i][1];
+        }
+        return breakMinutes;
+    }
+
+    /**
+     * This method parses the legacy break hour text, the result of Arrays.toString on the client's break times.
+     * @param breakHour The legacy break hour text, for example "[11:00, 11:30]".
+     * @return The breaks as consecutive pairs of start and end minutes.
+     */
+    public static int[] parseLegacy(String breakHour) {
+        if (breakHour == null || breakHour.isBlank()) {
+            return new int[0];
+        }
+        String values = breakHour.replace("[", "").replace("]", "");
+        return values.isBlank() ? new int[0] : parse(values.split(","));
+    }
+
+    /**
+     * This method formats breaks as consecutive start and end times, the format accepted by parse.
+     * @param breakMinutes The breaks as consecutive pairs of start and end minutes.
+     * @return The break times as "HH:mm" values.
+     */
+    public static String[] format(int[] breakMinutes) {
+        String[] values = new String[breakMinutes.length];
+        for (int i = 0; i < breakMinutes.length; i++) {
+            values[i] = LocalTime.ofSecondOfDay(breakMinutes[i] * 60L).toString();
+        }
+        return values;
+    }
+
+    /**
+     * This method formats breaks as the legacy break hour text.
+     * @param breakMinutes The breaks as consecutive pairs of start and end minutes.
+     * @return The legacy break hour text.
+     */
+    public static String toLegacyString(int[] breakMinutes) {
+        return Arrays.toString(format(breakMinutes));
+    }
+
+    /**
+     * This method converts a time into minutes from midnight.
+     * @param time The time to be converted, "HH:mm".
+     * @return The minutes from midnight.
+     * @throws IllegalArgumentException if the value is not a valid time.
+     */
+    private static int toMinute(String time) {
+        try {
+            return LocalTime.parse(time.trim()).toSecondOfDay() / 60;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid break time: " + time.trim());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package EasyAppointment.appointmentscheduler.util;
+
+import EasyAppointment.appointmentscheduler.DTO.CatalogVersionDTO;
+import org.springframework.http.CacheControl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class provides utility methods for HTTP caching of responses.
+ * Responses are tagged with a strong ETag derived from the versions of the rows they are built from,
+ * so a client revalidating with If-None-Match gets a 304 without the response being built again.
+ */
+public class HttpCaching {
+
+    /**
+     * This method builds a strong ETag from the versions of the rows a response is built from.
+     * @param name The name of the response, so different responses never share an ETag.
+     * @param versions The versions of the rows.
+     * @return The quoted ETag.
+     */
+    public static String eTag(String name, CatalogVersionDTO... versions) {
+        StringBuilder eTag = new StringBuilder("\"").append(name);
+        for (CatalogVersionDTO version : versions) {
+            eTag.append('-').append(version.getCount())
+                    .append('.').append(version.getMaxId() != null ? version.getMaxId() : 0)
+                    .append('.').append(version.getVersionSum() != null ? version.getVersionSum() : 0);
+        }
+        return eTag.append('"').toString();
+    }
+
+    /**
+     * This method builds a strong ETag from the version of a single entity.
+     * @param name The name of the response.
+     * @param id The ID of the entity.
+     * @param version The version of the entity.
+     * @return The quoted ETag.
+     */
+    public static String eTag(String name, Long id, int version) {
+        return "\"" + name + "-" + id + ".v" + version + "\"";
+    }
+
+    /**
+     * This method builds the Cache-Control policy of a response that requires authentication.
+     * Clients may reuse the response for the given time and must revalidate it afterwards.
+     * @param maxAgeSeconds How long the response may be reused, or 0 to revalidate it every time.
+     * @return The CacheControl.
+     */
+    public static CacheControl privateCacheControl(long maxAgeSeconds) {
+        if (maxAgeSeconds <= 0) {
+            return CacheControl.noCache().cachePrivate();
+        }
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePrivate().mustRevalidate();
+    }
+}
@@ -0,0 +1,68 @@
+package EasyAppointment.appointmentscheduler.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * This enum represents the image formats that can be uploaded and served.
+ * Uploads are served without authentication from the API origin, so only these formats are accepted,
+ * and they are recognized by their signature bytes rather than guessed, so content such as HTML is never served
+ * with a type a browser would render.
+ */
+public enum ImageFormat {
+    PNG("image/png"),
+    JPEG("image/jpeg"),
+    GIF("image/gif"),
+    WEBP("image/webp");
+
+    // The number of leading bytes needed to recognize every format
+    public static final int SIGNATURE_LENGTH = 12;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xff, (byte) 0xd8, (byte) 0xff};
+    private static final byte[] GIF87_SIGNATURE = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GIF89_SIGNATURE = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RIFF_SIGNATURE = "RIFF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WEBP_SIGNATURE = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+    private final String mediaType;
+
+    ImageFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * This method returns the media type the format is served with.
+     * @return The media type, always an image type.
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * This method recognizes the format of some content from its first bytes.
+     * @param header The first bytes of the content, at least SIGNATURE_LENGTH of them when available.
+     * @return An optional ImageFormat, empty if the content is not one of the formats.
+     */
+    public static Optional<ImageFormat> detect(byte[] header) {
+        if (startsWith(header, 0, PNG_SIGNATURE)) {
+            return Optional.of(PNG);
+        }
+        if (startsWith(header, 0, JPEG_SIGNATURE)) {
+            return Optional.of(JPEG);
+        }
+        if (startsWith(header, 0, GIF87_SIGNATURE) || startsWith(header, 0, GIF89_SIGNATURE)) {
+            return Optional.of(GIF);
+        }
+        if (startsWith(header, 0, RIFF_SIGNATURE) && startsWith(header, 8, WEBP_SIGNATURE)) {
+            return Optional.of(WEBP);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] signature) {
+        return data.length >= offset + signature.length
+                && Arrays.equals(data, offset, offset + signature.length, signature, 0, signature.length);
+    }
+}
@@ -0,0 +1,43 @@
+package EasyAppointment.appointmentscheduler.util;
+
+/**
+ * This enum represents the sizes in which images are precomputed, next to the original upload.
+ * Each size is the longest side of the resized image in pixels, and its name is the name of the stored variant.
+ */
+public enum ImageSize {
+    SMALL(128),
+    MEDIUM(512);
+
+    private final int maxDimension;
+
+    ImageSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * This method returns the name of the stored variant of this size.
+     * @return The variant name.
+     */
+    public String getVariant() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * This method parses an image size from a request parameter.
+     * @param value The parameter, such as "small", case insensitive.
+     * @return The ImageSize.
+     * @throws IllegalArgumentException if the value is not an image size.
+     */
+    public static ImageSize fromParam(String value) {
+        for (ImageSize size : values()) {
+            if (size.name().equalsIgnoreCase(value)) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Invalid image size: " + value);
+    }
+}
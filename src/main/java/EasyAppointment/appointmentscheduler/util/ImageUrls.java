@@ -0,0 +1,29 @@
+package EasyAppointment.appointmentscheduler.util;
+
+/**
+ * This class provides utility methods for the URLs of stored images.
+ * DTOs carry the URL of an image instead of its content, and clients fetch it from the image endpoint.
+ */
+public class ImageUrls {
+
+    private static final String BASE_PATH = "/api/images/";
+
+    /**
+     * This method returns the URL of an image.
+     * @param hash The hash of the image.
+     * @return The URL of the image, or null if there is no image.
+     */
+    public static String of(String hash) {
+        return hash == null ? null : BASE_PATH + hash;
+    }
+
+    /**
+     * This method returns the URL of an image in a given size.
+     * @param hash The hash of the image.
+     * @param size The size of the image.
+     * @return The URL of the image, or null if there is no image.
+     */
+    public static String of(String hash, ImageSize size) {
+        return hash == null ? null : BASE_PATH + hash + "?size=" + size.getVariant();
+    }
+}
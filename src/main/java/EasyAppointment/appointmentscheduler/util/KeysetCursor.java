@@ -0,0 +1,69 @@
+package EasyAppointment.appointmentscheduler.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * This class represents the position of a keyset paginated listing sorted by start time and ID.
+ * The next page starts after the last item of the previous one, instead of skipping an offset,
+ * so every page is an index range scan whatever its depth.
+ * It is sent to the client as an opaque URL safe string.
+ */
+public class KeysetCursor {
+
+    private final LocalDateTime startTime;
+    private final Long id;
+
+    /**
+     * This constructor is used to create a KeysetCursor.
+     * @param startTime The start time of the last item of the page.
+     * @param id The ID of the last item of the page.
+     */
+    public KeysetCursor(LocalDateTime startTime, Long id) {
+        this.startTime = startTime;
+        this.id = id;
+    }
+
+    /**
+     * This method encodes the cursor as an opaque string.
+     * @return The encoded cursor.
+     */
+    public String encode() {
+        String value = startTime + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method decodes a cursor received from the client.
+     * @param cursor The encoded cursor.
+     * @return The decoded KeysetCursor.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('_');
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * This method returns the start time of the last item of the page.
+     * @return The start time.
+     */
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * This method returns the ID of the last item of the page.
+     * @return The ID.
+     */
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,54 @@
+package EasyAppointment.appointmentscheduler.util;
+
+import java.time.LocalDate;
+
+/**
+ * This class represents the compiled weekly schedule of a service provider.
+ * It holds the working days of the service provider and its compiled day template,
+ * which is the same on every working day.
+ * It is immutable, so it can be shared between threads and cached.
+ */
+public class ScheduleTemplate {
+
+    private final Long serviceProviderId;
+    private final boolean[] workingDays;
+    private final SlotCalculator calculator;
+
+    /**
+     * This constructor is used to create a ScheduleTemplate.
+     * @param serviceProviderId The ID of the service provider.
+     * @param workingDays The working days of the service provider, index 0 is Monday.
+     * @param calculator The compiled day template of the service provider.
+     */
+    public ScheduleTemplate(Long serviceProviderId, boolean[] workingDays, SlotCalculator calculator) {
+        this.serviceProviderId = serviceProviderId;
+        this.workingDays = workingDays == null ? new boolean[0] : workingDays.clone();
+        this.calculator = calculator;
+    }
+
+    /**
+     * This method checks if a date is one of the working days of the service provider.
+     * @param date The date.
+     * @return A boolean indicating whether the service provider works on the date.
+     */
+    public boolean isWorkingDay(LocalDate date) {
+        int dayIndex = date.getDayOfWeek().getValue() - 1; // index 0 is Monday
+        return dayIndex < workingDays.length && workingDays[dayIndex];
+    }
+
+    /**
+     * This method returns the ID of the service provider.
+     * @return The ID of the service provider.
+     */
+    public Long getServiceProviderId() {
+        return serviceProviderId;
+    }
+
+    /**
+     * This method returns the compiled day template of the service provider.
+     * @return The SlotCalculator.
+     */
+    public SlotCalculator getCalculator() {
+        return calculator;
+    }
+}
@@ -0,0 +1,100 @@
+package EasyAppointment.appointmentscheduler.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class computes the slots of a day template.
+ * A day template is the opening and closing minute of a branch, the session duration of a service provider
+ * and its breaks. It is compiled once into a minute-of-day bitmap of the blocked minutes (outside the opening hours
+ * or during a break), from which the start minutes of the slots are computed as a primitive array.
+ * The same compiled template serves every working day of the service provider, so no time objects are created
+ * per slot until the caller turns a start minute into a LocalDateTime at the API boundary.
+ */
+public class SlotCalculator {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int[] startMinutes;
+    private final int sessionDuration;
+
+    private SlotCalculator(int[] startMinutes, int sessionDuration) {
+        this.startMinutes = startMinutes;
+        this.sessionDuration = sessionDuration;
+    }
+
+    /**
+     * This method compiles a day template.
+     * Slots are placed from the opening minute one after the other. A slot that would overlap a blocked minute
+     * is moved to the first minute after the last blocked minute it overlaps, and a slot must end before the closing minute.
+     * @param openingMinute The opening time, in minutes from midnight.
+     * @param closingMinute The closing time, in minutes from midnight.
+     * @param sessionDuration The duration of a slot, in minutes.
+     * @param breakMinutes The breaks as consecutive pairs of start and end minutes, the end being exclusive.
+     * @return The compiled SlotCalculator.
+     */
+    public static SlotCalculator compile(int openingMinute, int closingMinute, int sessionDuration, int[] breakMinutes) {
+        BitSet blocked = new BitSet(MINUTES_PER_DAY);
+        blocked.set(0, Math.max(0, Math.min(openingMinute, MINUTES_PER_DAY)));
+        blocked.set(Math.max(0, Math.min(closingMinute, MINUTES_PER_DAY)), MINUTES_PER_DAY);
+        for (int i = 0; i + 1 < breakMinutes.length; i += 2) {
+            int from = Math.max(0, breakMinutes[i]);
+            int to = Math.min(MINUTES_PER_DAY, breakMinutes[i + 1]);
+            if (from < to) {
+                blocked.set(from, to);
+            }
+        }
+
+        if (sessionDuration <= 0) {
+            return new SlotCalculator(new int[0], sessionDuration);
+        }
+
+        int[] starts = new int[MINUTES_PER_DAY / sessionDuration];
+        int count = 0;
+        int start = Math.max(0, openingMinute);
+        while (start + sessionDuration < closingMinute) { // break on EOD
+            int lastBlocked = blocked.previousSetBit(start + sessionDuration - 1);
+            if (lastBlocked < start) {
+                starts[count++] = start;
+                start += sessionDuration;
+            } else {
+                start = lastBlocked + 1; // skip past the break
+            }
+        }
+        return new SlotCalculator(Arrays.copyOf(starts, count), sessionDuration);
+    }
+
+    /**
+     * This method returns the number of slots in the day template.
+     * @return The number of slots.
+     */
+    public int getSlotCount() {
+        return startMinutes.length;
+    }
+
+    /**
+     * This method returns the start of a slot.
+     * @param index The index of the slot, slots are in ascending order.
+     * @return The start time of the slot, in minutes from midnight.
+     */
+    public int getStartMinute(int index) {
+        return startMinutes[index];
+    }
+
+    /**
+     * This method checks if a slot starts at the given minute.
+     * @param minuteOfDay The minute to be checked, in minutes from midnight.
+     * @return A boolean indicating whether a slot starts at the given minute.
+     */
+    public boolean isSlotStart(int minuteOfDay) {
+        return Arrays.binarySearch(startMinutes, minuteOfDay) >= 0;
+    }
+
+    /**
+     * This method returns the session duration the day template was compiled with.
+     * @return The duration of a slot, in minutes.
+     */
+    public int getSessionDuration() {
+        return sessionDuration;
+    }
+}
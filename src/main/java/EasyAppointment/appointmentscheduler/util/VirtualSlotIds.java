@@ -0,0 +1,55 @@
+package EasyAppointment.appointmentscheduler.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * This class provides utility methods for virtual slot IDs.
+ * A virtual slot is an open slot computed from the service provider's schedule rules that has no Appointment row yet.
+ * Its ID is negative, so it can never collide with a sequence generated appointment ID,
+ * and it encodes the service provider ID and the start time of the slot.
+ */
+public class VirtualSlotIds {
+
+    // The number of bits used for the start time (minutes since epoch), enough until the year 2225
+    private static final int MINUTE_BITS = 27;
+    private static final long MINUTE_MASK = (1L << MINUTE_BITS) - 1;
+
+    /**
+     * This method encodes a virtual slot ID from a service provider ID and a start time.
+     * @param serviceProviderId The ID of the service provider.
+     * @param startTime The start time of the slot.
+     * @return The virtual slot ID, always negative.
+     */
+    public static long encode(Long serviceProviderId, LocalDateTime startTime) {
+        long minutes = startTime.toEpochSecond(ZoneOffset.UTC) / 60;
+        return -((serviceProviderId << MINUTE_BITS) | minutes);
+    }
+
+    /**
+     * This method checks if an ID is a virtual slot ID.
+     * @param id The ID to be checked.
+     * @return A boolean indicating whether the ID is a virtual slot ID.
+     */
+    public static boolean isVirtual(Long id) {
+        return id != null && id < 0;
+    }
+
+    /**
+     * This method decodes the service provider ID from a virtual slot ID.
+     * @param virtualId The virtual slot ID.
+     * @return The ID of the service provider.
+     */
+    public static long serviceProviderId(long virtualId) {
+        return (-virtualId) >>> MINUTE_BITS;
+    }
+
+    /**
+     * This method decodes the start time from a virtual slot ID.
+     * @param virtualId The virtual slot ID.
+     * @return The start time of the slot.
+     */
+    public static LocalDateTime startTime(long virtualId) {
+        return LocalDateTime.ofEpochSecond(((-virtualId) & MINUTE_MASK) * 60, 0, ZoneOffset.UTC);
+    }
+}
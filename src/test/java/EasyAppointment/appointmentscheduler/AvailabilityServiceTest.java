@@ -0,0 +1,161 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.DTO.AppointmentDTO;
+import EasyAppointment.appointmentscheduler.DTO.BookedSlotDTO;
+import EasyAppointment.appointmentscheduler.DTO.ScheduleRulesDTO;
+import EasyAppointment.appointmentscheduler.DTO.ServiceProviderStatsDTO;
+import EasyAppointment.appointmentscheduler.models.Branch;
+import EasyAppointment.appointmentscheduler.models.ServiceProvider;
+import EasyAppointment.appointmentscheduler.repositories.AppointmentRepository;
+import EasyAppointment.appointmentscheduler.repositories.ServiceProviderRepository;
+import EasyAppointment.appointmentscheduler.services.AvailabilityService;
+import EasyAppointment.appointmentscheduler.util.VirtualSlotIds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityServiceTest {
+
+    private AppointmentRepository appointmentRepository;
+    private ServiceProviderRepository serviceProviderRepository;
+    private AvailabilityService availabilityService;
+    private ServiceProvider serviceProvider;
+    private LocalDate monday;
+
+    @BeforeEach
+    public void setup() {
+        appointmentRepository = Mockito.mock(AppointmentRepository.class);
+        serviceProviderRepository = Mockito.mock(ServiceProviderRepository.class);
+        availabilityService = new AvailabilityService(appointmentRepository, serviceProviderRepository);
+        ReflectionTestUtils.setField(availabilityService, "virtualSlots", true);
+        ReflectionTestUtils.setField(availabilityService, "horizonMonths", 3);
+        ReflectionTestUtils.setField(availabilityService, "nextSlotLookaheadDays", 14);
+        ReflectionTestUtils.setField(availabilityService, "templateCacheMaxSize", 100);
+        ReflectionTestUtils.setField(availabilityService, "templateCacheTtlSeconds", 3600L);
+
+        Branch branch = Branch.builder()
+                .openingHours(LocalTime.of(9, 0))
+                .closingHours(LocalTime.of(13, 0))
+                .build();
+        serviceProvider = ServiceProvider.builder()
+                .id(7L)
+                .workingDays(new boolean[]{true, false, false, false, false, false, false})
+                .breakHour("[11:00, 11:30]")
+                .sessionDuration(30)
+                .branch(branch)
+                .build();
+        Mockito.when(serviceProviderRepository.findScheduleRules(7L)).thenReturn(Optional.of(new ScheduleRulesDTO(
+                7L, serviceProvider.getWorkingDays(), null, serviceProvider.getBreakHour(), 30,
+                branch.getOpeningHours(), branch.getClosingHours())));
+        monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    }
+
+    @Test
+    @DisplayName("Day slots skip breaks and non working days")
+    public void testComputeDaySlots() {
+        List<LocalDateTime> slots = availabilityService.computeDaySlots(serviceProvider, serviceProvider.getBranch(), monday);
+
+        assertEquals(List.of(
+                monday.atTime(9, 0), monday.atTime(9, 30), monday.atTime(10, 0), monday.atTime(10, 30),
+                monday.atTime(11, 30), monday.atTime(12, 0)), slots);
+        assertTrue(availabilityService.computeDaySlots(serviceProvider, serviceProvider.getBranch(), monday.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Persisted appointments override computed slots")
+    public void testGetAvailabilityOverlaysPersistedAppointments() {
+        AppointmentDTO booked = new AppointmentDTO(100L, monday.atTime(9, 30), monday.atTime(10, 0), 30, true,
+                null, 7L, null, null);
+        Mockito.when(appointmentRepository.findSlotsByServiceProviderIdAndStartTimeBetween(
+                        Mockito.eq(7L), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(booked));
+
+        List<AppointmentDTO> slots = availabilityService.getAvailability(7L, monday, monday);
+
+        assertEquals(6, slots.size());
+        assertEquals(100L, slots.get(1).getId());
+        assertEquals(VirtualSlotIds.encode(7L, monday.atTime(9, 0)), slots.get(0).getId());
+        assertTrue(slots.get(0).getIsAvailable());
+    }
+
+    @Test
+    @DisplayName("Slots that already started cannot be materialized")
+    public void testMaterializePastSlot() {
+        long virtualId = VirtualSlotIds.encode(7L, LocalDateTime.now().minusMinutes(1).withSecond(0).withNano(0));
+
+        assertThrows(NoSuchElementException.class, () -> availabilityService.materializeSlot(virtualId));
+        Mockito.verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    @DisplayName("Schedule templates are compiled again once they expire or are evicted")
+    public void testScheduleTemplateExpiry() {
+        availabilityService.getScheduleTemplate(7L);
+        availabilityService.getScheduleTemplate(7L);
+        availabilityService.evictScheduleTemplate(7L);
+        availabilityService.getScheduleTemplate(7L);
+        ReflectionTestUtils.setField(availabilityService, "templateCacheTtlSeconds", 0L);
+        availabilityService.evictScheduleTemplate(7L);
+        availabilityService.getScheduleTemplate(7L);
+        availabilityService.getScheduleTemplate(7L);
+
+        Mockito.verify(serviceProviderRepository, Mockito.times(4)).findScheduleRules(7L);
+    }
+
+    @Test
+    @DisplayName("A calendar week costs one query once the schedule template is cached")
+    public void testGetAvailabilityQueryCount() {
+        availabilityService.getAvailability(7L, monday, monday.plusDays(6));
+        availabilityService.getAvailability(7L, monday.plusDays(7), monday.plusDays(13));
+
+        Mockito.verify(serviceProviderRepository, Mockito.times(1)).findScheduleRules(7L);
+        Mockito.verify(appointmentRepository, Mockito.times(2))
+                .findSlotsByServiceProviderIdAndStartTimeBetween(Mockito.eq(7L), Mockito.any(), Mockito.any());
+        Mockito.verifyNoMoreInteractions(serviceProviderRepository, appointmentRepository);
+    }
+
+    @Test
+    @DisplayName("Service provider stats skip booked slots and cost two queries")
+    public void testGetServiceProviderStats() {
+        LocalDateTime first = availabilityService.getServiceProviderStats(List.of(serviceProvider))
+                .get(7L).getNextAvailableSlot();
+        assertNotNull(first);
+        assertEquals(DayOfWeek.MONDAY, first.getDayOfWeek());
+
+        Mockito.when(appointmentRepository.findBookedSlots(Mockito.eq(List.of(7L)), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(new BookedSlotDTO(7L, first)));
+        Mockito.when(appointmentRepository.findUpcomingStats(Mockito.eq(List.of(7L)), Mockito.any()))
+                .thenReturn(List.of(new ServiceProviderStatsDTO(7L, null, 1L)));
+        ServiceProviderStatsDTO stats = availabilityService.getServiceProviderStats(List.of(serviceProvider)).get(7L);
+
+        assertTrue(stats.getNextAvailableSlot().isAfter(first));
+        assertEquals(1L, stats.getUpcomingBookedCount());
+        Mockito.verify(appointmentRepository, Mockito.times(2)).findUpcomingStats(Mockito.any(), Mockito.any());
+        Mockito.verify(appointmentRepository, Mockito.times(2)).findBookedSlots(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verifyNoMoreInteractions(serviceProviderRepository, appointmentRepository);
+    }
+
+    @Test
+    @DisplayName("Virtual slot IDs round trip")
+    public void testVirtualSlotIds() {
+        LocalDateTime start = monday.atTime(12, 0);
+        long id = VirtualSlotIds.encode(7L, start);
+
+        assertTrue(VirtualSlotIds.isVirtual(id));
+        assertEquals(7L, VirtualSlotIds.serviceProviderId(id));
+        assertEquals(start, VirtualSlotIds.startTime(id));
+    }
+}
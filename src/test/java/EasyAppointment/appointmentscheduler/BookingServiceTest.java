@@ -0,0 +1,293 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.DTO.AppointmentBookingDTO;
+import EasyAppointment.appointmentscheduler.DTO.AppointmentDTO;
+import EasyAppointment.appointmentscheduler.DTO.BookingBatchDTO;
+import EasyAppointment.appointmentscheduler.DTO.BookingDTO;
+import EasyAppointment.appointmentscheduler.DTO.CancellationBatchDTO;
+import EasyAppointment.appointmentscheduler.DTO.SlotHoldDTO;
+import EasyAppointment.appointmentscheduler.DTO.UserPrincipal;
+import EasyAppointment.appointmentscheduler.exception.AppointmentAlreadyBookedException;
+import EasyAppointment.appointmentscheduler.models.Appointment;
+import EasyAppointment.appointmentscheduler.models.Booking;
+import EasyAppointment.appointmentscheduler.models.BookingStatus;
+import EasyAppointment.appointmentscheduler.models.Role;
+import EasyAppointment.appointmentscheduler.models.User;
+import EasyAppointment.appointmentscheduler.repositories.AppointmentRepository;
+import EasyAppointment.appointmentscheduler.repositories.BookingRepository;
+import EasyAppointment.appointmentscheduler.repositories.ServiceProviderRepository;
+import EasyAppointment.appointmentscheduler.repositories.UserRepository;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiRequest;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.ApiResponse;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.CursorPage;
+import EasyAppointment.appointmentscheduler.requestsAndResponses.booking.BatchItemResult;
+import EasyAppointment.appointmentscheduler.services.AvailabilityService;
+import EasyAppointment.appointmentscheduler.services.BookingService;
+import EasyAppointment.appointmentscheduler.services.SlotHoldService;
+import EasyAppointment.appointmentscheduler.services.SlotReservationGate;
+import EasyAppointment.appointmentscheduler.services.UserPrincipalCache;
+import EasyAppointment.appointmentscheduler.util.KeysetCursor;
+import EasyAppointment.appointmentscheduler.util.VirtualSlotIds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingServiceTest {
+
+    private AppointmentRepository appointmentRepository;
+    private BookingService bookingService;
+    private SlotReservationGate gate;
+    private BookingRepository bookingRepository;
+    private ApiRequest<BookingDTO> request;
+    private UserRepository userRepository;
+    private UserPrincipalCache userPrincipalCache;
+    private AvailabilityService availabilityService;
+
+    @BeforeEach
+    public void setup() {
+        appointmentRepository = Mockito.mock(AppointmentRepository.class);
+        bookingRepository = Mockito.mock(BookingRepository.class);
+        userRepository = Mockito.mock(UserRepository.class);
+        gate = new SlotReservationGate(4, 30);
+        SlotHoldService slotHoldService = new SlotHoldService(gate, appointmentRepository);
+        ReflectionTestUtils.setField(slotHoldService, "holdTtlSeconds", 300L);
+        TransactionTemplate transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        Mockito.when(transactionTemplate.execute(Mockito.any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        Mockito.doCallRealMethod().when(transactionTemplate).executeWithoutResult(Mockito.any());
+        userPrincipalCache = new UserPrincipalCache(userRepository, 100, 300);
+        availabilityService = Mockito.mock(AvailabilityService.class);
+        bookingService = new BookingService(appointmentRepository, bookingRepository,
+                Mockito.mock(ServiceProviderRepository.class), userRepository, userPrincipalCache, availabilityService,
+                gate, slotHoldService, transactionTemplate);
+        ReflectionTestUtils.setField(bookingService, "maxBatchSize", 200);
+        ReflectionTestUtils.setField(bookingService, "maxPageSize", 100);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("john.doe@example.com", null));
+        Mockito.when(userRepository.findPrincipalByEmail("john.doe@example.com"))
+                .thenReturn(Optional.of(new UserPrincipal(3L, "john.doe@example.com", "password", Role.USER, null)));
+        Mockito.when(userRepository.getReferenceById(3L))
+                .thenReturn(User.builder().id(3L).email("john.doe@example.com").build());
+        Mockito.when(bookingRepository.save(Mockito.any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            ReflectionTestUtils.setField(booking, "bookingId", 50L);
+            return booking;
+        });
+        Mockito.when(appointmentRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(
+                Appointment.builder().id(1L).isAvailable(true).build(),
+                Appointment.builder().id(2L).isAvailable(true).build()));
+
+        request = new ApiRequest<>(new BookingDTO(null, LocalDateTime.now(), null, Set.of(1L, 2L), null, 7L));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Booking succeeds when every appointment is claimed")
+    public void testCreateNewBooking() {
+        Mockito.when(appointmentRepository.claimAppointments(Mockito.eq(Set.of(1L, 2L)), Mockito.any(Booking.class))).thenReturn(2);
+
+        ApiResponse<BookingDTO> response = bookingService.createNewBooking(request);
+
+        assertTrue(response.getSuccess());
+        assertEquals(50L, response.getData().getBookingId());
+        assertEquals(Set.of(1L, 2L), response.getData().getAppointmentsIds());
+        assertEquals("Confirmed", response.getData().getStatus());
+    }
+
+    @Test
+    @DisplayName("Booking fails when another booking claimed an appointment first")
+    public void testCreateNewBookingLostRace() {
+        Mockito.when(appointmentRepository.claimAppointments(Mockito.eq(Set.of(1L, 2L)), Mockito.any(Booking.class))).thenReturn(1);
+
+        assertThrows(AppointmentAlreadyBookedException.class, () -> bookingService.createNewBooking(request));
+    }
+
+    @Test
+    @DisplayName("Contenders are rejected while an appointment is being booked and right after it was booked")
+    public void testSlotReservationGate() {
+        SlotReservationGate gate = new SlotReservationGate(4, 30);
+
+        gate.reserve(Set.of(1L, 2L));
+        assertThrows(AppointmentAlreadyBookedException.class, () -> gate.reserve(Set.of(2L, 3L)));
+        gate.release(Set.of(1L, 2L), false);
+
+        gate.reserve(Set.of(2L, 3L));
+        gate.release(Set.of(2L, 3L), true);
+        assertThrows(AppointmentAlreadyBookedException.class, () -> gate.reserve(Set.of(3L)));
+
+        gate.forget(Set.of(3L));
+        gate.reserve(Set.of(3L));
+        assertEquals(2L, gate.getMetrics().get("rejectedInFlight") + gate.getMetrics().get("rejectedRecentlyBooked"));
+    }
+
+    @Test
+    @DisplayName("Reservations of a batch are released when materializing a slot fails unexpectedly")
+    public void testCreateBookingsReleasesReservationsOnFailure() {
+        long virtualId = VirtualSlotIds.encode(7L, LocalDate.now().plusDays(1).atTime(9, 0));
+        Mockito.when(availabilityService.materializeSlot(virtualId))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+        BookingDTO booking = new BookingDTO(null, LocalDateTime.now(), null, Set.of(virtualId), null, 7L);
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> bookingService.createBookings(new ApiRequest<>(new BookingBatchDTO(List.of(booking)))));
+
+        assertDoesNotThrow(() -> gate.reserve(Set.of(virtualId)));
+    }
+
+    @Test
+    @DisplayName("A batch item without a service provider fails on its own and the others are still booked")
+    public void testBatchItemWithoutServiceProvider() {
+        Mockito.when(appointmentRepository.claimAppointments(Mockito.eq(Set.of(1L, 2L)), Mockito.any(Booking.class))).thenReturn(2);
+        BookingDTO valid = new BookingDTO(null, LocalDateTime.now(), null, Set.of(1L, 2L), null, 7L);
+        BookingDTO missingProvider = new BookingDTO(null, LocalDateTime.now(), null, Set.of(3L), null, null);
+
+        List<BatchItemResult> results = bookingService.createBookings(
+                new ApiRequest<>(new BookingBatchDTO(List.of(missingProvider, valid)))).getData();
+
+        assertEquals(List.of(false, true), results.stream().map(BatchItemResult::getSuccess).toList());
+        assertEquals("Service provider ID is required", results.get(0).getMessage());
+        assertDoesNotThrow(() -> gate.reserve(Set.of(3L)));
+    }
+
+    @Test
+    @DisplayName("Null or missing appointment IDs are rejected before they reach the reservation layer")
+    public void testRejectsInvalidAppointmentIds() {
+        Set<Long> withNull = new HashSet<>(Arrays.asList(1L, null));
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createNewBooking(
+                new ApiRequest<>(new BookingDTO(null, LocalDateTime.now(), null, withNull, null, 7L))));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.holdAppointments(
+                new ApiRequest<>(new BookingDTO(null, LocalDateTime.now(), null, Set.of(), null, 7L))));
+        assertDoesNotThrow(() -> gate.reserve(Set.of(1L)));
+    }
+
+    @Test
+    @DisplayName("A hold blocks other bookings until it is confirmed")
+    public void testHoldAndConfirm() {
+        Mockito.when(appointmentRepository.countByIdInAndIsAvailableTrue(Set.of(1L, 2L))).thenReturn(2L);
+        Mockito.when(appointmentRepository.claimAppointments(Mockito.eq(Set.of(1L, 2L)), Mockito.any(Booking.class))).thenReturn(2);
+
+        SlotHoldDTO hold = bookingService.holdAppointments(request).getData();
+        assertThrows(AppointmentAlreadyBookedException.class, () -> bookingService.createNewBooking(request));
+
+        ApiResponse<BookingDTO> response = bookingService.confirmHold(hold.getHoldId(), request);
+        assertEquals(Set.of(1L, 2L), response.getData().getAppointmentsIds());
+        assertThrows(NoSuchElementException.class, () -> bookingService.confirmHold(hold.getHoldId(), request));
+    }
+
+    @Test
+    @DisplayName("Expired holds are released in bulk")
+    public void testReleaseExpiredHolds() {
+        SlotHoldService slotHoldService = new SlotHoldService(gate, appointmentRepository);
+        Mockito.when(appointmentRepository.countByIdInAndIsAvailableTrue(Mockito.anySet())).thenReturn(1L);
+
+        slotHoldService.hold(Set.of(1L), "john.doe@example.com");
+        slotHoldService.hold(Set.of(2L), "jane.doe@example.com");
+
+        assertEquals(2, slotHoldService.releaseExpiredHolds()); // the hold time is 0 when it is not set
+        gate.reserve(Set.of(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Batch cancellation releases only the caller's cancellable appointments")
+    public void testCancelAppointments() {
+        Mockito.when(appointmentRepository.findBookingsOfAppointments(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new AppointmentBookingDTO(1L, 50L, BookingStatus.CONFIRMED, "john.doe@example.com"),
+                new AppointmentBookingDTO(2L, 51L, BookingStatus.CONFIRMED, "jane.doe@example.com")));
+        Mockito.when(appointmentRepository.releaseAppointments(Set.of(1L), Set.of(50L))).thenReturn(1);
+
+        List<BatchItemResult> results = bookingService.cancelAppointments(
+                new ApiRequest<>(new CancellationBatchDTO(List.of(1L, 2L, 3L)))).getData();
+
+        assertEquals(List.of(true, false, false), results.stream().map(BatchItemResult::getSuccess).toList());
+        assertEquals("User not authorized", results.get(1).getMessage());
+        Mockito.verify(bookingRepository).updateStatusAfterCancellation(Set.of(50L), Set.of(BookingStatus.CONFIRMED, BookingStatus.PARTIALLY_CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Cancellation is a status update and a bulk release, and only one concurrent cancellation wins")
+    public void testCancelBooking() {
+        Mockito.when(bookingRepository.findBookingOfAppointment(1L))
+                .thenReturn(Optional.of(new BookingDTO(50L, LocalDateTime.now(), BookingStatus.CONFIRMED, 3L, 7L)));
+        Mockito.when(bookingRepository.cancelBooking(50L, Set.of(BookingStatus.CONFIRMED, BookingStatus.PARTIALLY_CANCELLED)))
+                .thenReturn(1).thenReturn(0);
+
+        ApiResponse<BookingDTO> response = bookingService.cancelBooking(1L);
+
+        assertEquals("Cancelled", response.getData().getStatus());
+        Mockito.verify(appointmentRepository).releaseAppointmentsOfBooking(50L);
+        assertThrows(IllegalStateException.class, () -> bookingService.cancelBooking(1L));
+    }
+
+    @Test
+    @DisplayName("My bookings are paged with a cursor that resumes after the last appointment")
+    public void testGetMyBookingsPaged() {
+        LocalDate day = LocalDate.of(2030, 1, 7);
+        AppointmentDTO first = new AppointmentDTO(1L, day.atTime(9, 0), day.atTime(9, 30), 30, false, 50L, 7L, null, null);
+        AppointmentDTO second = new AppointmentDTO(2L, day.atTime(9, 30), day.atTime(10, 0), 30, false, 50L, 7L, null, null);
+        Mockito.when(appointmentRepository.findBookedAppointmentsOfUser(Mockito.eq(3L), Mockito.any(),
+                        Mockito.eq(day.atStartOfDay()), Mockito.eq(day.plusDays(1).atStartOfDay()),
+                        Mockito.any(), Mockito.any(), Mockito.eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(first, second));
+
+        CursorPage<AppointmentDTO> page = bookingService.getMyBookings(day, day, null, 1);
+
+        assertEquals(List.of(first), page.getItems());
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(first.getStartTime(), cursor.getStartTime());
+        assertEquals(1L, cursor.getId());
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getMyBookings(day, day, "not-a-cursor", 1));
+    }
+
+    @Test
+    @DisplayName("The source statuses of the booking updates come from the transitions and cancelled bookings are final")
+    public void testBookingStatusTransitions() {
+        assertEquals(Set.of(BookingStatus.CONFIRMED, BookingStatus.PARTIALLY_CANCELLED),
+                BookingStatus.sourcesOf(BookingStatus.PARTIALLY_CANCELLED, BookingStatus.CANCELLED));
+        assertEquals(Set.of(), BookingStatus.sourcesOf(BookingStatus.CONFIRMED));
+        assertFalse(BookingStatus.CANCELLED.canTransitionTo(BookingStatus.PARTIALLY_CANCELLED));
+        assertEquals(BookingStatus.PARTIALLY_CANCELLED, BookingStatus.fromCode(BookingStatus.PARTIALLY_CANCELLED.getCode()));
+    }
+
+    @Test
+    @DisplayName("The caller's principal is loaded once, then served from the cache until it is evicted")
+    public void testUserPrincipalCache() {
+        Mockito.when(appointmentRepository.findBookedAppointmentsOfUserEndingAfter(Mockito.eq(3L), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of());
+
+        bookingService.getAllUserBookedAppointments(false);
+        bookingService.getAllUserBookedAppointments(true);
+        userPrincipalCache.evict("john.doe@example.com");
+        bookingService.getAllUserBookedAppointments(false);
+
+        Mockito.verify(userRepository, Mockito.times(2)).findPrincipalByEmail("john.doe@example.com");
+        Mockito.verify(userRepository, Mockito.never()).findByEmail(Mockito.any());
+        assertEquals(1L, userPrincipalCache.getMetrics().get("hits"));
+        assertEquals(2L, userPrincipalCache.getMetrics().get("misses"));
+    }
+}
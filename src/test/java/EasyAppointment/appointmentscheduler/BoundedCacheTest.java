@@ -0,0 +1,54 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.util.BoundedCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTest {
+
+    private static final long LATER = Long.MAX_VALUE;
+
+    @Test
+    @DisplayName("The least recently used entry is evicted when the cache is full")
+    public void testEviction() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(() -> 2);
+        cache.put("a", 1, LATER);
+        cache.put("b", 2, LATER);
+        assertEquals(1, cache.get("a"));
+
+        cache.put("c", 3, LATER);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.get("a"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    @DisplayName("An expired entry is never returned and is removed on read")
+    public void testExpiry() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(() -> 10);
+        cache.put("a", 1, System.currentTimeMillis());
+        cache.put("b", 2, LATER);
+
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.get("b"));
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("A removed entry is no longer returned")
+    public void testRemove() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(() -> 10);
+        cache.put("a", 1, LATER);
+
+        cache.remove("a");
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,33 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.util.BreakTimes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BreakTimesTest {
+
+    @Test
+    @DisplayName("Break times parse from pairs, ranges and legacy text")
+    public void testParse() {
+        int[] expected = {660, 690, 780, 810};
+
+        assertArrayEquals(expected, BreakTimes.parse(new String[]{"11:00", "11:30", "13:00", "13:30"}));
+        assertArrayEquals(expected, BreakTimes.parse(new String[]{"13:00-13:30", "11:00-11:30"}));
+        assertArrayEquals(expected, BreakTimes.parseLegacy("[11:00, 11:30, 13:00, 13:30]"));
+        assertEquals("[11:00, 11:30, 13:00, 13:30]", BreakTimes.toLegacyString(expected));
+        assertEquals(0, BreakTimes.parseLegacy("[]").length);
+    }
+
+    @Test
+    @DisplayName("Invalid break times are rejected")
+    public void testParseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> BreakTimes.parse(new String[]{"11:00"}));
+        assertThrows(IllegalArgumentException.class, () -> BreakTimes.parse(new String[]{"11:30", "11:00"}));
+        assertThrows(IllegalArgumentException.class, () -> BreakTimes.parse(new String[]{"lunch"}));
+        assertThrows(IllegalArgumentException.class, () -> BreakTimes.parse(new String[]{"10:00-11:00-12:00"}));
+        assertThrows(IllegalArgumentException.class, () -> BreakTimes.parse(new String[]{"10:00-"}));
+        assertThrows(IllegalArgumentException.class, () -> BreakTimes.parse(new String[]{"11:00-12:00", "10:00-11:30"}));
+    }
+}
@@ -0,0 +1,48 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.controllers.CategoryController;
+import EasyAppointment.appointmentscheduler.repositories.CategoryRepository;
+import EasyAppointment.appointmentscheduler.services.CategoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CategoryControllerTest {
+
+    private CategoryService categoryService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        categoryService = Mockito.mock(CategoryService.class);
+        CategoryController controller = new CategoryController(Mockito.mock(CategoryRepository.class), categoryService);
+        ReflectionTestUtils.setField(controller, "categoriesMaxAge", 3600L);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        Mockito.when(categoryService.getAllCategoriesETag()).thenReturn("\"categories-3.3.0-1.1.0\"");
+        Mockito.when(categoryService.getAllCategories()).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Categories revalidated with a matching ETag are not built again")
+    public void testGetAllCategoriesNotModified() throws Exception {
+        mockMvc.perform(get("/api/categories/initial"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"categories-3.3.0-1.1.0\""))
+                .andExpect(header().string("Cache-Control", "max-age=3600, must-revalidate, private"));
+
+        mockMvc.perform(get("/api/categories/initial").header("If-None-Match", "\"categories-3.3.0-1.1.0\""))
+                .andExpect(status().isNotModified());
+
+        Mockito.verify(categoryService, Mockito.times(1)).getAllCategories();
+    }
+}
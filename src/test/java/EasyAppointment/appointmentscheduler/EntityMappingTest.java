@@ -0,0 +1,26 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.models.Branch;
+import EasyAppointment.appointmentscheduler.models.Business;
+import EasyAppointment.appointmentscheduler.models.ServiceProvider;
+import jakarta.persistence.Lob;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityMappingTest {
+
+    @Test
+    @DisplayName("Entities loaded on hot paths map no blob column")
+    public void testHotEntitiesHaveNoBlobColumns() {
+        for (Class<?> entity : new Class<?>[]{Business.class, Branch.class, ServiceProvider.class}) {
+            for (Field field : entity.getDeclaredFields()) {
+                assertFalse(field.isAnnotationPresent(Lob.class), entity.getSimpleName() + "." + field.getName() + " is a @Lob");
+                assertNotEquals(byte[].class, field.getType(), entity.getSimpleName() + "." + field.getName() + " is binary");
+            }
+        }
+    }
+}
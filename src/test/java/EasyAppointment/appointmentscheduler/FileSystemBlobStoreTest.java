@@ -0,0 +1,48 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.services.FileSystemBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileSystemBlobStoreTest {
+
+    @TempDir
+    Path storageDir;
+
+    private FileSystemBlobStore blobStore;
+
+    @BeforeEach
+    public void setup() {
+        blobStore = new FileSystemBlobStore(storageDir.toString());
+    }
+
+    @Test
+    @DisplayName("Storing the same content twice stores it once under its hash")
+    public void testPutDeduplicates() throws IOException {
+        byte[] data = {1, 2, 3};
+        String hash = blobStore.put(data);
+
+        assertEquals(hash, blobStore.put(data.clone()));
+        assertEquals(FileSystemBlobStore.hash(data), hash);
+        assertTrue(blobStore.exists(hash));
+        assertArrayEquals(data, blobStore.get(hash).orElseThrow().getContentAsByteArray());
+        try (var files = Files.walk(storageDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Hashes that are not SHA-256 hex are rejected")
+    public void testInvalidHashRejected() {
+        assertThrows(IllegalArgumentException.class, () -> blobStore.get("../../etc/passwd"));
+        assertTrue(blobStore.get("0".repeat(64)).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.services.FileSystemBlobStore;
+import EasyAppointment.appointmentscheduler.services.ImageService;
+import EasyAppointment.appointmentscheduler.util.ImageFormat;
+import EasyAppointment.appointmentscheduler.util.ImageSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private FileSystemBlobStore blobStore;
+    private ImageService imageService;
+
+    @BeforeEach
+    public void setup() {
+        blobStore = new FileSystemBlobStore(storageDir.toString());
+        imageService = new ImageService(blobStore, Mockito.mock(ThreadPoolTaskExecutor.class));
+        ReflectionTestUtils.setField(imageService, "variantQuality", 0.8f);
+    }
+
+    @Test
+    @DisplayName("Variants are resized to their size and smaller sizes than the original only")
+    public void testGenerateVariants() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "png", out);
+        byte[] data = out.toByteArray();
+        String hash = blobStore.put(data);
+
+        imageService.generateVariants(hash, data);
+
+        byte[] small = blobStore.getVariant(hash, ImageSize.SMALL.getVariant()).orElseThrow().getContentAsByteArray();
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(small));
+        assertEquals(128, thumbnail.getWidth());
+        assertEquals(64, thumbnail.getHeight());
+        assertTrue(blobStore.getVariant(hash, ImageSize.MEDIUM.getVariant()).isEmpty());
+        assertTrue(imageService.isProcessed(hash));
+    }
+
+    @Test
+    @DisplayName("Variant work rejected by a full queue is scheduled again on the next sized request")
+    public void testRetriesRejectedVariants() throws IOException {
+        ThreadPoolTaskExecutor executor = Mockito.mock(ThreadPoolTaskExecutor.class);
+        imageService = new ImageService(blobStore, executor);
+        ReflectionTestUtils.setField(imageService, "variantQuality", 0.8f);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "png", out);
+        Mockito.doThrow(new TaskRejectedException("full")).doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(Mockito.any(Runnable.class));
+
+        String hash = imageService.store(out.toByteArray());
+        assertFalse(imageService.isProcessed(hash));
+
+        imageService.requestVariants(hash);
+        assertTrue(imageService.isProcessed(hash));
+        assertTrue(blobStore.getVariant(hash, ImageSize.SMALL.getVariant()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Uploads that are not an accepted image format are rejected before they are stored")
+    public void testRejectsNonImages() throws IOException {
+        byte[] html = "<html><script>alert(1)</script></html>".getBytes(StandardCharsets.UTF_8);
+        byte[] truncatedPng = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), "png", out);
+
+        assertThrows(IllegalArgumentException.class, () -> imageService.store(html));
+        assertThrows(IllegalArgumentException.class, () -> imageService.store(truncatedPng));
+        assertEquals(ImageFormat.PNG, imageService.detectFormat(out.toByteArray()));
+        assertFalse(blobStore.exists(FileSystemBlobStore.hash(html)));
+    }
+}
@@ -0,0 +1,103 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.config.JwtService;
+import EasyAppointment.appointmentscheduler.config.TokenVersionCache;
+import EasyAppointment.appointmentscheduler.config.VerifiedToken;
+import EasyAppointment.appointmentscheduler.models.Role;
+import EasyAppointment.appointmentscheduler.repositories.UserRepository;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    public void setup() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS1hdC1sZWFzdC0yNTYtYml0cy1sb25n");
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheMaxSize", 100);
+        jwtService.init();
+        userDetails = new User("john.doe@example.com", "password", List.of());
+    }
+
+    @Test
+    @DisplayName("A token is verified with a single parse that returns its subject, expiration and claims")
+    public void testVerify() {
+        String jwt = jwtService.generateToken(Map.of("tenant", "demo"), userDetails);
+
+        VerifiedToken token = jwtService.verify(jwt);
+
+        assertEquals("john.doe@example.com", token.getSubject());
+        assertNotNull(token.getExpiration());
+        assertEquals("demo", token.getClaims().get("tenant"));
+        assertTrue(token.isValidFor(userDetails));
+        assertThrows(JwtException.class, () -> jwtService.verify(jwt.substring(0, jwt.length() - 2) + "xx"));
+    }
+
+    @Test
+    @DisplayName("A token carrying a role that no longer exists is rejected as invalid")
+    public void testUnknownRole() {
+        String jwt = jwtService.generateToken(Map.of(JwtService.ROLE_CLAIM, "SUPERUSER"), userDetails);
+
+        assertThrows(JwtException.class, () -> jwtService.verify(jwt));
+    }
+
+    @Test
+    @DisplayName("User tokens carry stateless claims that are only trusted while their version is current")
+    public void testStatelessClaims() {
+        EasyAppointment.appointmentscheduler.models.User user = EasyAppointment.appointmentscheduler.models.User.builder()
+                .id(3L).email("john.doe@example.com").role(Role.ADMIN).tokenVersion(2).build();
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionById(3L)).thenReturn(Optional.of(2), Optional.of(3));
+        TokenVersionCache tokenVersionCache = new TokenVersionCache(userRepository);
+        ReflectionTestUtils.setField(tokenVersionCache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(tokenVersionCache, "maxSize", 100);
+
+        VerifiedToken token = jwtService.verify(jwtService.generateToken(user));
+
+        assertTrue(token.isStateless());
+        assertEquals(3L, token.getUserId());
+        assertEquals(Role.ADMIN, token.getRole());
+        assertTrue(tokenVersionCache.isCurrent(token.getUserId(), token.getTokenVersion()));
+        assertTrue(tokenVersionCache.isCurrent(token.getUserId(), token.getTokenVersion()));
+        tokenVersionCache.evict(3L);
+        assertFalse(tokenVersionCache.isCurrent(token.getUserId(), token.getTokenVersion()));
+        Mockito.verify(userRepository, Mockito.times(2)).findTokenVersionById(3L);
+    }
+
+    @Test
+    @DisplayName("A verified token is served from the cache, but never once it is expired")
+    public void testVerifiedTokenCache() {
+        String jwt = jwtService.generateToken(userDetails);
+        VerifiedToken first = jwtService.verify(jwt);
+
+        assertSame(first, jwtService.verify(jwt));
+
+        String expired = Jwts.builder()
+                .setSubject("john.doe@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith((Key) ReflectionTestUtils.getField(jwtService, "signingKey"), SignatureAlgorithm.HS256)
+                .compact();
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expired));
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expired));
+    }
+}
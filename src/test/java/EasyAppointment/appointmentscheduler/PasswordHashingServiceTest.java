@@ -0,0 +1,89 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.auth.PasswordHashingService;
+import EasyAppointment.appointmentscheduler.config.ApplicationConfig;
+import EasyAppointment.appointmentscheduler.exception.ServiceBusyException;
+import EasyAppointment.appointmentscheduler.repositories.UserRepository;
+import EasyAppointment.appointmentscheduler.services.UserPrincipalCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHashingServiceTest {
+
+    @Test
+    @DisplayName("Hashing work beyond the pool and its queue is rejected immediately")
+    public void testRejectsWhenSaturated() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        PasswordHashingService passwordHashingService = new PasswordHashingService(executor);
+        ReflectionTestUtils.setField(passwordHashingService, "timeoutMillis", 10000L);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> passwordHashingService.run(() -> {
+            running.countDown();
+            release.await();
+            return "hash";
+        }));
+        running.await();
+
+        assertThrows(ServiceBusyException.class, () -> passwordHashingService.run(() -> "hash"));
+        release.countDown();
+        assertEquals("hash", first.get());
+        assertEquals(1L, passwordHashingService.getMetrics().get("rejected"));
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Hashing work that does not finish within the timeout is cancelled and reported as busy")
+    public void testTimesOut() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        PasswordHashingService passwordHashingService = new PasswordHashingService(executor);
+        ReflectionTestUtils.setField(passwordHashingService, "timeoutMillis", 50L);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        assertThrows(ServiceBusyException.class, () -> passwordHashingService.run(() -> {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "hash";
+        }));
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        assertEquals(1L, passwordHashingService.getMetrics().get("timedOut"));
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Legacy hashes still match and are flagged for an upgrade to the current encoding")
+    public void testLegacyHashUpgrade() {
+        ApplicationConfig config = new ApplicationConfig(Mockito.mock(UserPrincipalCache.class), Mockito.mock(UserRepository.class));
+        ReflectionTestUtils.setField(config, "bcryptStrength", 5);
+        PasswordEncoder encoder = config.passwordEncoder();
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+
+        assertTrue(encoder.matches("password123", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        String current = encoder.encode("password123");
+        assertTrue(current.startsWith("{bcrypt}"));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+}
@@ -0,0 +1,35 @@
+package EasyAppointment.appointmentscheduler;
+
+import EasyAppointment.appointmentscheduler.util.SlotCalculator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlotCalculatorTest {
+
+    @Test
+    @DisplayName("Slots end before closing and resume after a break")
+    public void testCompile() {
+        SlotCalculator calculator = SlotCalculator.compile(9 * 60, 13 * 60, 30, new int[]{11 * 60, 11 * 60 + 30});
+
+        int[] expected = {540, 570, 600, 630, 690, 720};
+        assertEquals(expected.length, calculator.getSlotCount());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], calculator.getStartMinute(i));
+        }
+        assertTrue(calculator.isSlotStart(690));
+        assertFalse(calculator.isSlotStart(660));
+    }
+
+    @Test
+    @DisplayName("A slot ending inside a break is moved after the break")
+    public void testSlotOverlappingBreakEnd() {
+        SlotCalculator calculator = SlotCalculator.compile(9 * 60, 13 * 60, 45, new int[]{11 * 60, 11 * 60 + 30});
+
+        // 9:00, 9:45, then 10:30 would end inside the break, so the next slot starts at 11:30
+        assertEquals(3, calculator.getSlotCount());
+        assertEquals(9 * 60 + 45, calculator.getStartMinute(1));
+        assertEquals(11 * 60 + 30, calculator.getStartMinute(2));
+    }
+}